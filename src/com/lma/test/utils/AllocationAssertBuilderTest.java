@@ -0,0 +1,86 @@
+package com.lma.test.utils;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.lma.utils.MultiAssertBuilder;
+
+public class AllocationAssertBuilderTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	private final int[] counter = new int[1];
+
+	private final Runnable noAllocation = new Runnable(){
+		public void run(){
+			counter[0]++;
+		}
+	};
+
+	private final Runnable arrayAllocation = new Runnable(){
+		public void run(){
+			counter[0] += new byte[1024 + counter[0] % 2].length;
+		}
+	};
+
+	@Test
+	public void testNoAllocation(){
+		MultiAssertBuilder.assertAllocation(noAllocation, true)
+			.named("increment")
+			.warmUp(10000)
+			.iterations(10000)
+			.noAllocation()
+			.runAssertions();
+	}
+
+	@Test
+	public void testOverBudget(){
+		try{
+			MultiAssertBuilder.assertAllocation(arrayAllocation)
+				.named("array")
+				.warmUp(0)
+				.iterations(100)
+				.maxBytesPerInvocation(512)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertEquals("See the logs for the details on the 1 error(s).", ae.getMessage());
+		}
+	}
+
+	@Test
+	public void testWithinBudget(){
+		MultiAssertBuilder.assertAllocation(arrayAllocation)
+			.iterations(100)
+			.maxBytesPerInvocation(4096)
+			.runAssertions();
+	}
+
+	@Test
+	public void testNegativeBudget(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("Method maxBytesPerInvocation() - the budget cannot be negative.");
+		MultiAssertBuilder.assertAllocation(noAllocation).maxBytesPerInvocation(-1);
+	}
+
+	@Test
+	public void testDisabledMeasureIsNotEnabled(){
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		threadBean.setThreadAllocatedMemoryEnabled(false);
+		try{
+			MultiAssertBuilder.assertAllocation(noAllocation).runAssertions();
+			Assert.fail();
+		}catch(final IllegalStateException ise){
+			Assert.assertTrue(ise.getMessage().startsWith("The measure of the memory allocated by a thread is disabled in the JVM."));
+			Assert.assertFalse(threadBean.isThreadAllocatedMemoryEnabled());
+		}finally{
+			threadBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		Assert.assertEquals(0, counter[0]);
+	}
+}
@@ -0,0 +1,116 @@
+package com.lma.test.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lma.utils.AssertionRecorder;
+import com.lma.utils.AssertionRunEvent;
+import com.lma.utils.MultiAssertBuilder;
+import com.lma.utils.MultiAssertBuilder.AssertionType;
+
+public class AssertionRecorderTest {
+
+	private Human bob1;
+	private Human bob2;
+	private final List<AssertionRunEvent> runs = Collections.synchronizedList(new ArrayList<AssertionRunEvent>());
+	private final List<String> slowChecks = Collections.synchronizedList(new ArrayList<String>());
+
+	@Before
+	public void init(){
+		final Dog dog1 = new Dog("youpi", 5, null);
+		bob1 = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		bob2 = new Human("bob", "bobby", "address22", 25, Human.HumanType.BIG, Human.HumanType.THIN, bob1, dog1);
+	}
+
+	@After
+	public void reset(){
+		MultiAssertBuilder.setRecorder(null);
+	}
+
+	@Test
+	public void testRunIsRecorded(){
+		MultiAssertBuilder.setRecorder(new ListRecorder(Long.MAX_VALUE));
+		try{
+			new MultiAssertBuilder(bob1, bob2)
+				.setAssertEqualFields("surname", "dog.name", "age")
+				.setAssertValue("dog.age", 5, true)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("1 error(s)"));
+		}
+		Assert.assertEquals(1, runs.size());
+		final AssertionRunEvent run = runs.get(0);
+		Assert.assertEquals(Human.class, run.getExaminedClass());
+		Assert.assertEquals(8, run.getFieldCount());
+		Assert.assertEquals(4, run.getCheckCount());
+		Assert.assertEquals(1, run.getKOCount());
+		Assert.assertTrue(run.getCheckDuration() >= 0);
+		Assert.assertTrue(slowChecks.isEmpty());
+	}
+
+	@Test
+	public void testSlowChecksAreRecorded(){
+		MultiAssertBuilder.setRecorder(new ListRecorder(0));
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertEqualFields("surname", "dog.name")
+			.setAssertNotNullFields("dog")
+			.setParallelEvaluation(1)
+			.runAssertions();
+		Assert.assertEquals(3, slowChecks.size());
+		Assert.assertTrue(slowChecks.contains("dog.name EQUALS"));
+		Assert.assertTrue(slowChecks.contains("dog NOT_NULL"));
+	}
+
+	@Test
+	public void testNothingIsRecordedWithoutRecorder(){
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertEqualFields("surname")
+			.runAssertions();
+		Assert.assertTrue(runs.isEmpty());
+	}
+
+	@Test
+	public void testNothingIsRecordedWhileDisabled(){
+		final ListRecorder disabledRecorder = new ListRecorder(0);
+		disabledRecorder.enabled = false;
+		MultiAssertBuilder.setRecorder(disabledRecorder);
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertEqualFields("surname", "dog.name")
+			.runAssertions();
+		Assert.assertTrue(runs.isEmpty());
+		Assert.assertTrue(slowChecks.isEmpty());
+	}
+
+	private class ListRecorder implements AssertionRecorder {
+
+		private final long slowCheckThreshold;
+		private boolean enabled = true;
+
+		private ListRecorder(final long slowCheckThreshold){
+			this.slowCheckThreshold = slowCheckThreshold;
+		}
+
+		public boolean isEnabled(){
+			return enabled;
+		}
+
+		public long getSlowCheckThreshold(){
+			return slowCheckThreshold;
+		}
+
+		public void recordRun(final AssertionRunEvent event){
+			runs.add(event);
+		}
+
+		public void recordSlowCheck(final Class<?> examinedClass, final String fieldName, final AssertionType assertionType, final long duration){
+			slowChecks.add(fieldName + " " + assertionType);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package com.lma.test.utils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.lma.utils.AssertionPlan;
+import com.lma.utils.ConcurrentAssertRunner;
+import com.lma.utils.MultiAssertBuilder;
+
+public class ConcurrentAssertRunnerTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	private AssertionPlan plan;
+	private Dog dog1;
+
+	@Before
+	public void init(){
+		dog1 = new Dog("youpi", 5, null);
+		plan = new AssertionPlan(){
+			public MultiAssertBuilder configure(final MultiAssertBuilder builder){
+				return builder
+					.setAssertEqualFields("surname", "dog.name")
+					.setAssertNotNullFields("age");
+			}
+		};
+	}
+
+	@Test
+	public void testAllTasksOK(){
+		final ConcurrentAssertRunner runner = new ConcurrentAssertRunner(plan, 4, true);
+		for (int i = 0; i < 20; i++) {
+			runner.addTask(source(new Human(null, "bobby", "address" + i, i, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1)),
+					source(new Human("bob", "bobby", "address", 0, Human.HumanType.TALL, Human.HumanType.BIG, null, dog1)));
+		}
+		runner.runAssertions();
+	}
+
+	@Test
+	public void testNoTask(){
+		new ConcurrentAssertRunner(plan, 4).runAssertions();
+	}
+
+	@Test
+	public void testFailuresAreAggregated(){
+		final Human bob = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		final Human bill = new Human(null, "billy", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, new Dog("popo", 5, null));
+		try{
+			new ConcurrentAssertRunner(plan, 2)
+				.addTask(source(bob), source(bob))
+				.addTask(source(bob), source(bill))
+				.addTask(source(bob), new Callable<Object>(){
+					public Object call() throws Exception {
+						throw new IllegalStateException("fixture not found");
+					}
+				})
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertEquals("2 of 3 task(s) failed. See the logs for the details on the 3 error(s).", ae.getMessage());
+		}
+	}
+
+	@Test
+	public void testErrorOfATaskIsReportedWithTheOthers(){
+		final Link first = new Link();
+		final Link second = new Link();
+		first.next = first;
+		second.next = second;
+		try{
+			new ConcurrentAssertRunner(new AssertionPlan(){
+				public MultiAssertBuilder configure(final MultiAssertBuilder builder){
+					return builder.setAssertEqualFields("next");
+				}
+			}, 2)
+				.addTask(source(first), source(second))
+				.addTask(source(new Link()), source(new Link()))
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertEquals("1 of 2 task(s) failed. See the logs for the details on the 1 error(s).", ae.getMessage());
+		}
+	}
+
+	@Test
+	public void testStreamedTasksAreBounded(){
+		final int maxConcurrency = 3;
+		final AtomicInteger produced = new AtomicInteger();
+		final AtomicInteger started = new AtomicInteger();
+		final AtomicInteger maxAhead = new AtomicInteger();
+		final Human bob = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		final Iterable<Callable<Object>> actualSources = new Iterable<Callable<Object>>(){
+			public Iterator<Callable<Object>> iterator(){
+				return new Iterator<Callable<Object>>(){
+					public boolean hasNext(){
+						return produced.get() < 500;
+					}
+					public Callable<Object> next(){
+						maxAhead.set(Math.max(maxAhead.get(), produced.incrementAndGet() - started.get()));
+						return new Callable<Object>(){
+							public Object call(){
+								started.incrementAndGet();
+								return bob;
+							}
+						};
+					}
+					public void remove(){
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+		final Iterable<Callable<Object>> expectedSources = new Iterable<Callable<Object>>(){
+			public Iterator<Callable<Object>> iterator(){
+				return new Iterator<Callable<Object>>(){
+					private int count;
+					public boolean hasNext(){
+						return count < 500;
+					}
+					public Callable<Object> next(){
+						count++;
+						return source(bob);
+					}
+					public void remove(){
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+		new ConcurrentAssertRunner(plan, maxConcurrency)
+			.addTasks(actualSources, expectedSources)
+			.runAssertions();
+		Assert.assertEquals(500, started.get());
+		Assert.assertTrue(maxAhead.get() <= 2 * maxConcurrency + 1);
+	}
+
+	@Test
+	public void testStreamedSourcesOfDifferentSizes(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("task #1 has no expected source.");
+		final Human bob = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		new ConcurrentAssertRunner(plan, 2)
+			.addTasks(Arrays.asList(source(bob), source(bob)), Arrays.asList(source(bob)))
+			.runAssertions();
+	}
+
+	@Test
+	public void testInvalidConcurrency(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("'maxConcurrency' parameter must be greater than 0.");
+		new ConcurrentAssertRunner(plan, 0);
+	}
+
+	private static Callable<Object> source(final Object value){
+		return new Callable<Object>(){
+			public Object call(){
+				return value;
+			}
+		};
+	}
+}
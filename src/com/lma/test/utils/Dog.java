@@ -0,0 +1,38 @@
+package com.lma.test.utils;
+
+class Dog {
+
+	private String name;
+	private int age;
+	private String toy;
+	
+	public Dog(String name, int age, String toy){
+		this.name = name;
+		this.age = age;
+		this.toy = toy;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public void setAge(int age) {
+		this.age = age;
+	}
+
+	public String getToy() {
+		return toy;
+	}
+
+	public void setToy(String toy) {
+		this.toy = toy;
+	}
+}
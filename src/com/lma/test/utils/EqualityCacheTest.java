@@ -0,0 +1,149 @@
+package com.lma.test.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.lma.utils.EqualityCache;
+import com.lma.utils.MultiAssertBuilder;
+
+public class EqualityCacheTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	private Collar red1;
+	private Collar red2;
+	private Collar blue;
+
+	@Before
+	public void init(){
+		red1 = new Collar("red");
+		red2 = new Collar("red");
+		blue = new Collar("blue");
+		Collar.equalsCount = 0;
+	}
+
+	@Test
+	public void testEqualsRunsOncePerPair(){
+		final EqualityCache cache = new EqualityCache(Collar.class);
+		for (int i = 0; i < 3; i++) {
+			new MultiAssertBuilder(new Kennel(red1, red1, blue), new Kennel(red2, red2, red1))
+				.setAssertEqualFields("collar", "spare")
+				.setAssertNotEqualFields("old")
+				.setEqualityCache(cache)
+				.runAssertions();
+		}
+		Assert.assertEquals(2, Collar.equalsCount);
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(7, cache.getHitCount());
+	}
+
+	@Test
+	public void testFailuresAreStillReported(){
+		final EqualityCache cache = new EqualityCache(Collar.class);
+		try{
+			new MultiAssertBuilder(new Kennel(red1, blue, red1), new Kennel(blue, blue, red2))
+				.setAssertEqualFields("collar", "spare")
+				.setAssertNotEqualFields("old")
+				.setEqualityCache(cache)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("2 error(s)"));
+		}
+		Assert.assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testOtherTypesAreNotCached(){
+		final EqualityCache cache = new EqualityCache(String.class);
+		new MultiAssertBuilder(new Kennel(red1, red1, blue), new Kennel(red2, red2, red1))
+			.setAssertEqualFields("collar")
+			.setEqualityCache(cache)
+			.runAssertions();
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testMutatedValuesOfOtherTypesAreComparedAgain(){
+		final EqualityCache cache = new EqualityCache(Collar.class);
+		final List<String> actualNames = new ArrayList<String>();
+		final List<String> expectedNames = new ArrayList<String>();
+		actualNames.add("rex");
+		expectedNames.add("rex");
+		final Pack actual = new Pack(actualNames);
+		final Pack expected = new Pack(expectedNames);
+		new MultiAssertBuilder(actual, expected)
+			.setAssertEqualFields("names")
+			.setEqualityCache(cache)
+			.runAssertions();
+		actualNames.add("youpi");
+		try{
+			new MultiAssertBuilder(actual, expected)
+				.setAssertEqualFields("names")
+				.setEqualityCache(cache)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("1 error(s)"));
+		}
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testCachedTypesAreRequired(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("the immutable types to cache must be listed.");
+		new EqualityCache();
+	}
+}
+
+class Collar {
+
+	static int equalsCount;
+
+	private final String color;
+
+	public Collar(final String color){
+		this.color = color;
+	}
+
+	@Override
+	public boolean equals(final Object other){
+		equalsCount++;
+		return (other instanceof Collar) && color.equals(((Collar) other).color);
+	}
+
+	@Override
+	public int hashCode(){
+		return color.hashCode();
+	}
+}
+
+class Kennel {
+
+	private Collar collar;
+	private Collar spare;
+	private Collar old;
+
+	public Kennel(final Collar collar, final Collar spare, final Collar old){
+		this.collar = collar;
+		this.spare = spare;
+		this.old = old;
+	}
+}
+
+class Pack {
+
+	private List<String> names;
+
+	public Pack(final List<String> names){
+		this.names = names;
+	}
+}
@@ -0,0 +1,192 @@
+package com.lma.test.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.lma.utils.AssertionPlan;
+import com.lma.utils.FailureStore;
+import com.lma.utils.MultiAssertBuilder;
+import com.lma.utils.MultiAssertBuilder.AssertionType;
+
+public class FailureStoreTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File spillFile;
+	private FailureStore store;
+	private PrintStream out;
+	private ByteArrayOutputStream logs;
+
+	@Before
+	public void init(){
+		spillFile = new File(folder.getRoot(), "failures.ko");
+		store = new FailureStore(spillFile, 3);
+		out = System.out;
+		logs = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(logs));
+	}
+
+	@After
+	public void reset(){
+		System.setOut(out);
+		store.close();
+	}
+
+	@Test
+	public void testReconciliationFailuresAreSpilled(){
+		final List<Dog> actuals = new ArrayList<Dog>();
+		final List<Dog> expecteds = new ArrayList<Dog>();
+		for (int i = 0; i < 1000; i++) {
+			actuals.add(new Dog("dog" + i, i, "ball"));
+			expecteds.add(new Dog("dog" + i, i + 1, (i % 2 == 0) ? "ball" : "bone"));
+		}
+		actuals.add(new Dog("rex", 3, null));
+		try{
+			MultiAssertBuilder.reconcile(actuals, expecteds, "name")
+				.applying(new AssertionPlan(){
+					public MultiAssertBuilder configure(final MultiAssertBuilder builder){
+						return builder.setAssertEqualFields("age", "toy");
+					}
+				})
+				.storingFailures(store)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertEquals("See the logs for the details on the 1501 error(s).", ae.getMessage());
+		}
+		Assert.assertEquals(1501, store.getCount());
+		Assert.assertEquals(1000, store.getCount("age", AssertionType.EQUALS));
+		Assert.assertEquals(500, store.getCount("toy", AssertionType.EQUALS));
+		Assert.assertEquals(1, store.getCount("name", null));
+		Assert.assertEquals(3, store.getSample().size());
+		Assert.assertTrue(store.getSample().get(0).startsWith("[name=dog0] KO : the fields named 'age' are not equal but they should be."));
+		Assert.assertTrue(logs.toString().contains("KO : 1501 error(s) were sent to the failure store '" + spillFile.getPath() + "'."));
+		Assert.assertFalse(logs.toString().contains("=> MultiAssertBuilder failure store"));
+		Assert.assertTrue(logs.toString().length() < 2000);
+
+		store.close();
+		final String summary = store.getSummary();
+		Assert.assertTrue(summary.contains("=> MultiAssertBuilder failure store : 1501 error(s), the first 3 below"));
+		Assert.assertTrue(summary.contains("	toy EQUALS : 500"));
+		final FailureStore.Reader reader = FailureStore.read(spillFile);
+		try{
+			int count = 0;
+			FailureStore.Failure last = null;
+			while(reader.hasNext()){
+				last = reader.next();
+				count++;
+			}
+			Assert.assertEquals(1501, count);
+			Assert.assertEquals("name", last.getFieldName());
+			Assert.assertNull(last.getAssertionType());
+			Assert.assertEquals("KO : the actual record with name 'rex' has no expected record.", last.getMessage());
+		}finally{
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testBuilderFailuresAreSpilled(){
+		final Dog dog1 = new Dog("youpi", 5, null);
+		final Human bob1 = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		final Human bob2 = new Human("bob", "bobby", "address22", 25, Human.HumanType.BIG, Human.HumanType.THIN, bob1, dog1);
+		try{
+			new MultiAssertBuilder(bob1, bob2)
+				.setAssertEqualFields("name", "address", "age", "dog.name")
+				.setFailureStore(store)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertEquals("See the logs for the details on the 3 error(s).", ae.getMessage());
+		}
+		Assert.assertEquals(1, store.getCount("address", AssertionType.EQUALS));
+		Assert.assertEquals(0, store.getCount("dog.name", AssertionType.EQUALS));
+	}
+
+	@Test
+	public void testNotASpillFile() throws IOException{
+		final File file = folder.newFile("other.bin");
+		final FileOutputStream stream = new FileOutputStream(file);
+		stream.write(new byte[]{1, 2, 3, 4});
+		stream.close();
+		expe.expect(IllegalStateException.class);
+		expe.expectMessage("is not a failure spill file.");
+		FailureStore.read(file);
+	}
+
+	@Test
+	public void testTruncatedLastRecordIsReportedAsCorrupted() throws IOException{
+		final long length = spillBuilderFailures();
+		final RandomAccessFile file = new RandomAccessFile(spillFile, "rw");
+		file.setLength(length - 3);
+		file.close();
+		expe.expect(IllegalStateException.class);
+		expe.expectMessage("its last record is truncated.");
+		readAll();
+	}
+
+	@Test
+	public void testCorruptedAssertionTypeIsReported() throws IOException{
+		final long length = spillBuilderFailures();
+		final List<FailureStore.Failure> failures = readAll();
+		final int messageLength = failures.get(failures.size() - 1).getMessage().getBytes("UTF-8").length;
+		final RandomAccessFile file = new RandomAccessFile(spillFile, "rw");
+		file.seek(length - messageLength - 5);
+		file.writeByte(100);
+		file.close();
+		expe.expect(IllegalStateException.class);
+		expe.expectMessage("unknown assertion type 100.");
+		readAll();
+	}
+
+	/**
+	 * Spills the errors of a builder and closes the store, returning the length of the spill file.
+	 */
+	private long spillBuilderFailures(){
+		final Dog dog1 = new Dog("youpi", 5, null);
+		final Human bob1 = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		final Human bob2 = new Human("bob", "bobby", "address22", 25, Human.HumanType.BIG, Human.HumanType.THIN, bob1, dog1);
+		try{
+			new MultiAssertBuilder(bob1, bob2)
+				.setAssertEqualFields("name", "address", "age")
+				.setFailureStore(store)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			// The errors are in the store.
+		}
+		store.close();
+		return spillFile.length();
+	}
+
+	private List<FailureStore.Failure> readAll(){
+		final List<FailureStore.Failure> failures = new ArrayList<FailureStore.Failure>();
+		final FailureStore.Reader reader = FailureStore.read(spillFile);
+		try{
+			while(reader.hasNext()){
+				failures.add(reader.next());
+			}
+		}finally{
+			reader.close();
+		}
+		return failures;
+	}
+}
@@ -0,0 +1,69 @@
+package com.lma.test.utils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lma.utils.FieldCoverage;
+import com.lma.utils.MultiAssertBuilder;
+import com.lma.utils.MultiAssertBuilder.AssertionType;
+
+public class FieldCoverageTest {
+
+	private Human bob1;
+	private Human bob2;
+
+	@Before
+	public void init(){
+		final Dog dog1 = new Dog("youpi", 5, null);
+		bob1 = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		bob2 = new Human("bob", "bobby", "address22", 25, Human.HumanType.BIG, Human.HumanType.THIN, bob1, dog1);
+		FieldCoverage.reset();
+		FieldCoverage.enable();
+	}
+
+	@After
+	public void reset(){
+		FieldCoverage.disable();
+		FieldCoverage.reset();
+	}
+
+	@Test
+	public void testChecksAreCounted(){
+		for (int i = 0; i < 3; i++) {
+			new MultiAssertBuilder(bob1, bob2)
+				.setAssertEqualFields("surname", "dog.name")
+				.setAssertNotEqualFields("age")
+				.setAssertValue("dog.age", 5, true)
+				.setParallelEvaluation(2)
+				.runAssertions();
+		}
+		Assert.assertEquals(3, FieldCoverage.getCount(Human.class, "surname", AssertionType.EQUALS));
+		Assert.assertEquals(3, FieldCoverage.getCount(Human.class, "age", AssertionType.NOT_EQUALS));
+		Assert.assertEquals(0, FieldCoverage.getCount(Human.class, "age", AssertionType.EQUALS));
+		Assert.assertEquals(3, FieldCoverage.getCount(Dog.class, "name", AssertionType.EQUALS));
+		Assert.assertEquals(3, FieldCoverage.getCount(Dog.class, "age", AssertionType.EQUALS));
+	}
+
+	@Test
+	public void testReportListsNeverAssertedFields(){
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertEqualFields("surname", "dog.name")
+			.runAssertions();
+		final String report = FieldCoverage.getReport();
+		Assert.assertTrue(report.contains("2 of 11 field(s) asserted."));
+		Assert.assertTrue(report.contains("surname : NOT_EQUALS=0 EQUALS=1 NULL=0 NOT_NULL=0"));
+		Assert.assertTrue(report.contains("address : NEVER ASSERTED"));
+		Assert.assertTrue(report.contains("toy : NEVER ASSERTED"));
+	}
+
+	@Test
+	public void testNothingIsCountedWhenDisabled(){
+		FieldCoverage.disable();
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertEqualFields("surname")
+			.runAssertions();
+		Assert.assertEquals(0, FieldCoverage.getCount(Human.class, "surname", AssertionType.EQUALS));
+	}
+}
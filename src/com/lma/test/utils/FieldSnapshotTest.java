@@ -0,0 +1,75 @@
+package com.lma.test.utils;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lma.utils.FieldSnapshot;
+import com.lma.utils.MultiAssertBuilder;
+
+public class FieldSnapshotTest {
+
+	private Human bob1;
+	private Human bob2;
+	private FieldSnapshot snapshot;
+
+	@Before
+	public void init(){
+		final Dog dog1 = new Dog("youpi", 5, null);
+		bob1 = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		bob2 = new Human("bob", "bobby", "address22", 25, Human.HumanType.BIG, Human.HumanType.THIN, bob1, dog1);
+		snapshot = new FieldSnapshot();
+	}
+
+	@Test
+	public void testOnlyChangedFieldsAreChecked(){
+		runAssertions();
+		Assert.assertEquals(5, snapshot.getCheckedCount());
+		Assert.assertEquals(0, snapshot.getReusedCount());
+
+		runAssertions();
+		Assert.assertEquals(5, snapshot.getCheckedCount());
+		Assert.assertEquals(5, snapshot.getReusedCount());
+
+		bob1.setAge(30);
+		runAssertions();
+		Assert.assertEquals(6, snapshot.getCheckedCount());
+		Assert.assertEquals(9, snapshot.getReusedCount());
+	}
+
+	@Test
+	public void testChangedFieldIsReportedAgain(){
+		runAssertions();
+		bob1.setSurname("billy");
+		try{
+			runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("1 error(s)"));
+		}
+		try{
+			runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("1 error(s)"));
+		}
+		Assert.assertEquals(6, snapshot.getCheckedCount());
+	}
+
+	@Test
+	public void testClear(){
+		runAssertions();
+		snapshot.clear();
+		runAssertions();
+		Assert.assertEquals(5, snapshot.getCheckedCount());
+		Assert.assertEquals(0, snapshot.getReusedCount());
+	}
+
+	private void runAssertions(){
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertEqualFields("surname", "humanType", "dog", "dog.name")
+			.setAssertNotEqualFields("age")
+			.setSnapshot(snapshot)
+			.runAssertions();
+	}
+}
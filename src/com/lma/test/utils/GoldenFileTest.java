@@ -0,0 +1,114 @@
+package com.lma.test.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.lma.utils.GoldenFile;
+import com.lma.utils.MultiAssertBuilder;
+
+public class GoldenFileTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Human bob1;
+	private File file;
+
+	@Before
+	public void init() throws IOException{
+		bob1 = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, new Dog("youpi", 5, null));
+		file = new File(folder.getRoot(), "humans.golden");
+	}
+
+	@Test
+	public void testRecordAndAssert(){
+		new GoldenFile(file).record("bob", bob1, "name", "surname", "age", "humanType", "dog.name", "dog.age");
+
+		final GoldenFile goldenFile = new GoldenFile(file);
+		Assert.assertTrue(goldenFile.contains("bob"));
+		new MultiAssertBuilder(bob1, null, true)
+			.setAssertGoldenValues(goldenFile, "bob")
+			.runAssertions();
+	}
+
+	@Test
+	public void testChangedValuesAreReported(){
+		final GoldenFile goldenFile = new GoldenFile(file).record("bob", bob1, "surname", "age", "dog.name");
+		bob1.setAge(27);
+		bob1.getDog().setName("popo");
+		try{
+			new MultiAssertBuilder(bob1, null)
+				.setAssertGoldenValues(goldenFile, "bob")
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("2 error(s)"));
+		}
+	}
+
+	@Test
+	public void testLastRecordWins(){
+		final GoldenFile goldenFile = new GoldenFile(file)
+			.record("bob", bob1, "age")
+			.record("other", bob1, "surname");
+		bob1.setAge(40);
+		goldenFile.record("bob", bob1, "age", "wannabe");
+
+		final Map<String, Object> values = new GoldenFile(file).getValues("bob");
+		Assert.assertEquals(2, values.size());
+		Assert.assertEquals(Integer.valueOf(40), values.get("age"));
+		Assert.assertEquals(Human.HumanType.THIN, values.get("wannabe"));
+		Assert.assertEquals("bobby", goldenFile.getValues("other").get("surname"));
+	}
+
+	@Test
+	public void testManyRecordsAreIndexedAsTheyAreAppended(){
+		final GoldenFile goldenFile = new GoldenFile(file);
+		for (int i = 0; i < 5000; i++) {
+			bob1.setAge(i);
+			goldenFile.record("bob" + i, bob1, "surname", "age");
+			if((i % 1000) == 0){
+				Assert.assertEquals(Integer.valueOf(i), goldenFile.getValues("bob" + i).get("age"));
+			}
+		}
+		Assert.assertEquals(Integer.valueOf(4999), goldenFile.getValues("bob4999").get("age"));
+		Assert.assertEquals(Integer.valueOf(1234), new GoldenFile(file).getValues("bob1234").get("age"));
+	}
+
+	@Test
+	public void testTruncatedRecord() throws IOException{
+		new GoldenFile(file).record("bob", bob1, "surname", "age").record("other", bob1, "surname");
+		final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+		randomAccessFile.setLength(randomAccessFile.length() - 3);
+		randomAccessFile.close();
+		expe.expect(IllegalStateException.class);
+		expe.expectMessage("is corrupted : the record at offset");
+		new GoldenFile(file);
+	}
+
+	@Test
+	public void testUnknownKey(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("No golden values were recorded for the key 'nobody'");
+		new GoldenFile(file).getValues("nobody");
+	}
+
+	@Test
+	public void testUnsupportedValueType(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("The value of the field 'dog' cannot be recorded in a golden file");
+		new GoldenFile(file).record("bob", bob1, "dog");
+	}
+}
@@ -0,0 +1,92 @@
+package com.lma.test.utils;
+
+class Human {
+	
+	public enum HumanType{
+		TALL, THIN, BIG;
+	}
+
+	private String name;
+	private String surname;
+	private String address;
+	private int age;
+	private HumanType humanType;
+	private HumanType wannabe;
+	private Human friend;
+	private Dog dog;
+	
+	public Human(String name, String surname, String address, int age, HumanType humanType, HumanType wannabe, Human friend, Dog dog){
+		this.name = name;
+		this.surname = surname;
+		this.address = address;
+		this.age = age;
+		this.humanType = humanType;
+		this.wannabe = wannabe;
+		this.friend = friend;
+		this.setDog(dog);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getSurname() {
+		return surname;
+	}
+
+	public void setSurname(String surname) {
+		this.surname = surname;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public void setAddress(String address) {
+		this.address = address;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public void setAge(int age) {
+		this.age = age;
+	}
+
+	public HumanType getHumanType() {
+		return humanType;
+	}
+
+	public void setHumanType(HumanType humanType) {
+		this.humanType = humanType;
+	}
+
+	public HumanType getWannabe() {
+		return wannabe;
+	}
+
+	public void setWannabe(HumanType wannabe) {
+		this.wannabe = wannabe;
+	}
+
+	public Human getFriend() {
+		return friend;
+	}
+
+	public void setFriend(Human friend) {
+		this.friend = friend;
+	}
+
+	public Dog getDog() {
+		return dog;
+	}
+
+	public void setDog(Dog dog) {
+		this.dog = dog;
+	}
+}
@@ -0,0 +1,85 @@
+package com.lma.test.utils;
+
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.lma.utils.JsonLinesExpectedSource;
+import com.lma.utils.MultiAssertBuilder;
+
+public class JsonLinesExpectedSourceTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	private static final String JSON_LINES =
+			"{\"name\":null,\"surname\":\"bobby\",\"address\":\"address11\",\"age\":26,\"humanType\":\"BIG\",\"friend\":{\"name\":\"bob\",\"tags\":[1,{\"a\":\"}\"}]},\"dog\":{\"name\":\"you\\u0070i\",\"age\":5}}\n"
+			+ "{\"surname\":\"billy\",\"age\":30.5,\"humanType\":\"TALL\",\"dog\":{\"age\":5,\"name\":\"popo\"}}\n";
+
+	private Human bob1;
+
+	@Before
+	public void init(){
+		bob1 = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, new Dog("youpi", 5, null));
+	}
+
+	@Test
+	public void testStreamedLines(){
+		final JsonLinesExpectedSource source = new JsonLinesExpectedSource(new StringReader(JSON_LINES));
+		Assert.assertTrue(source.hasNext());
+		source.applyNext(new MultiAssertBuilder(bob1, null, true), "name", "surname", "age", "humanType", "dog.name", "dog.age")
+			.runAssertions();
+		Assert.assertTrue(source.hasNext());
+		try{
+			source.applyNext(new MultiAssertBuilder(bob1, null), "name", "surname", "age", "humanType", "dog.name", "dog.age")
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("4 error(s)"));
+		}
+		Assert.assertFalse(source.hasNext());
+	}
+
+	@Test
+	public void testObjectValueIsRejected(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("The JSON property 'friend' at line 1 is not a scalar value.");
+		new JsonLinesExpectedSource(new StringReader(JSON_LINES))
+			.applyNext(new MultiAssertBuilder(bob1, null), "friend");
+	}
+
+	@Test
+	public void testMalformedLine(){
+		expe.expect(IllegalStateException.class);
+		expe.expectMessage("Malformed JSON at line 1");
+		new JsonLinesExpectedSource(new StringReader("{\"age\" 26}"))
+			.applyNext(new MultiAssertBuilder(bob1, null), "age");
+	}
+
+	@Test
+	public void testNextLineIsReadAfterMalformedLine(){
+		final JsonLinesExpectedSource source = new JsonLinesExpectedSource(new StringReader("{\"age\" 26, \"surname\":\"}\"}\n{\"age\":26,\"surname\":\"bobby\"}\n"));
+		try{
+			source.applyNext(new MultiAssertBuilder(bob1, null), "age", "surname");
+			Assert.fail();
+		}catch(final IllegalStateException ise){
+			Assert.assertTrue(ise.getMessage().startsWith("Malformed JSON at line 1"));
+		}
+		Assert.assertTrue(source.hasNext());
+		source.applyNext(new MultiAssertBuilder(bob1, null), "age", "surname")
+			.runAssertions();
+		Assert.assertFalse(source.hasNext());
+	}
+
+	@Test
+	public void testNoMoreLines(){
+		expe.expect(IllegalStateException.class);
+		expe.expectMessage("There are no more JSON lines to read.");
+		new JsonLinesExpectedSource(new StringReader("\n  \n"))
+			.applyNext(new MultiAssertBuilder(bob1, null), "age");
+	}
+}
@@ -0,0 +1,74 @@
+package com.lma.test.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.lma.utils.MultiAssertBuilder;
+
+public class LatencyAssertBuilderTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	private final Runnable fastOperation = new Runnable(){
+		public void run(){
+			Math.sqrt(System.nanoTime());
+		}
+	};
+
+	private final Runnable slowOperation = new Runnable(){
+		public void run(){
+			try{
+				Thread.sleep(2);
+			}catch(final InterruptedException ie){
+				Thread.currentThread().interrupt();
+			}
+		}
+	};
+
+	@Test
+	public void testWithinBudget(){
+		MultiAssertBuilder.assertLatency(fastOperation, true)
+			.named("sqrt")
+			.warmUp(1000)
+			.iterations(10000)
+			.p50Below(1, TimeUnit.SECONDS)
+			.p999Below(1, TimeUnit.SECONDS)
+			.runAssertions();
+	}
+
+	@Test
+	public void testOverBudget(){
+		try{
+			MultiAssertBuilder.assertLatency(slowOperation)
+				.named("sleep")
+				.warmUp(0)
+				.iterations(5)
+				.p50Below(100, TimeUnit.MICROSECONDS)
+				.p99Below(100, TimeUnit.MICROSECONDS)
+				.percentileBelow(100, 10, TimeUnit.SECONDS)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertEquals("See the logs for the details on the 2 error(s).", ae.getMessage());
+		}
+	}
+
+	@Test
+	public void testInvalidPercentile(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("Method percentileBelow() - the percentile must be between 0 and 100.");
+		MultiAssertBuilder.assertLatency(fastOperation).percentileBelow(101, 1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testNullOperation(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("'operation' parameter is null.");
+		MultiAssertBuilder.assertLatency(null);
+	}
+}
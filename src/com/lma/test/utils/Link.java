@@ -0,0 +1,16 @@
+package com.lma.test.utils;
+
+class Link {
+
+	Link next;
+
+	@Override
+	public boolean equals(final Object other){
+		return (other instanceof Link) && next.equals(((Link) other).next);
+	}
+
+	@Override
+	public int hashCode(){
+		return 0;
+	}
+}
@@ -1,10 +1,26 @@
 package com.lma.test.utils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import com.lma.utils.MultiAssertBuilder;
 
@@ -12,6 +28,9 @@ public class MultiAssertBuilderTest {
 	
 	@Rule
 	public ExpectedException expe = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 	
 	private Human bob1;
 	private Human bob2;
@@ -164,134 +183,354 @@ public class MultiAssertBuilderTest {
 			Assert.assertTrue(ae.getMessage().contains("6 error(s)"));
 		}
 	}
-}
 
+	@Test
+	public void testParallelEvaluation(){
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertNotEqualFields("address","age","friend.age")
+			.setAssertEqualFields("dog.name", "humanType")
+			.setAssertNotNullFields("friend")
+			.setAssertNullFields("name")
+			.setAssertValue("dog.age", 5, true)
+			.setParallelEvaluation(1)
+			.runAssertions();
+	}
 
-class Dog {
+	@Test
+	public void testParallelEvaluationKeepsTheOrder(){
+		final String sequentialLogs = runAndCaptureLogs(0);
+		Assert.assertTrue(sequentialLogs.contains("KO"));
+		for (int i = 0; i < 20; i++) {
+			Assert.assertEquals(sequentialLogs, runAndCaptureLogs(1));
+		}
+	}
 
-	private String name;
-	private int age;
-	private String toy;
-	
-	public Dog(String name, int age, String toy){
-		this.name = name;
-		this.age = age;
-		this.toy = toy;
+	@Test
+	public void testParallelEvaluationThrowsTheFirstFailure(){
+		final Human lonely1 = new Human("bob", "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, null);
+		final Human lonely2 = new Human("bob", "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, null);
+		final String sequentialMessage = captureCheckException(new MultiAssertBuilder(lonely1, lonely2));
+		for (int i = 0; i < 50; i++) {
+			Assert.assertEquals(sequentialMessage, captureCheckException(new MultiAssertBuilder(lonely1, lonely2).setParallelEvaluation(1)));
+		}
 	}
 
-	public String getName() {
-		return name;
+	private String captureCheckException(final MultiAssertBuilder builder){
+		try{
+			builder.setAssertEqualFields("name", "surname", "friend.name", "age", "dog.name", "friend.age", "dog.age", "address")
+				.runAssertions();
+			Assert.fail();
+		}catch(final NullPointerException npe){
+			return npe.getMessage();
+		}
+		return null;
 	}
 
-	public void setName(String name) {
-		this.name = name;
+	@Test
+	public void testNegativeParallelThreshold(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("Method setParallelEvaluation() - the threshold cannot be negative.");
+		new MultiAssertBuilder(bob1, bob2).setParallelEvaluation(-1);
 	}
 
-	public int getAge() {
-		return age;
+	@Test
+	public void testPreload(){
+		Assert.assertEquals(2, MultiAssertBuilder.preload(Human.class));
+		Assert.assertEquals(2, MultiAssertBuilder.preload(Human.class, Dog.class, Human.HumanType.class));
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertEqualFields("dog.name", "humanType")
+			.runAssertions();
 	}
 
-	public void setAge(int age) {
-		this.age = age;
+	@Test
+	public void testPreloadPackages(){
+		Assert.assertTrue(MultiAssertBuilder.preloadPackages("com.lma.test.utils") > 3);
 	}
 
-	public String getToy() {
-		return toy;
+	@Test
+	public void testPreloadPackagesFromJarWithoutDirectoryEntries() throws IOException{
+		final File jar = writeDogJar("dogs.jar", "com/lma/test/utils/Dog.class");
+		final Thread thread = Thread.currentThread();
+		final ClassLoader contextClassLoader = thread.getContextClassLoader();
+		final URLClassLoader jarClassLoader = new URLClassLoader(new URL[]{ jar.toURI().toURL() }, null);
+		thread.setContextClassLoader(jarClassLoader);
+		try{
+			Assert.assertEquals(1, MultiAssertBuilder.preloadPackages("com.lma.test.utils"));
+		}finally{
+			thread.setContextClassLoader(contextClassLoader);
+		}
 	}
 
-	public void setToy(String toy) {
-		this.toy = toy;
+	@Test
+	public void testPreloadPackagesSkipsClassesNotFound() throws IOException{
+		final File jar = writeDogJar("ghosts.jar", "com/lma/test/utils/Dog.class", "com/lma/test/utils/Ghost.class");
+		final Thread thread = Thread.currentThread();
+		final ClassLoader contextClassLoader = thread.getContextClassLoader();
+		final URLClassLoader jarClassLoader = new URLClassLoader(new URL[]{ jar.toURI().toURL() }, null){
+			@Override
+			protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+				if(name.endsWith(".Ghost")){
+					throw new ClassNotFoundException(name);
+				}
+				return super.loadClass(name, resolve);
+			}
+		};
+		thread.setContextClassLoader(jarClassLoader);
+		try{
+			Assert.assertEquals(1, MultiAssertBuilder.preloadPackages("com.lma.test.utils"));
+		}finally{
+			thread.setContextClassLoader(contextClassLoader);
+		}
 	}
-}
 
-class Human {
-	
-	public enum HumanType{
-		TALL, THIN, BIG;
+	/**
+	 * Writes a jar file without directory entries, with the class file of Dog under each entry name.
+	 */
+	private File writeDogJar(final String fileName, final String... entryNames) throws IOException{
+		final File jar = folder.newFile(fileName);
+		final JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try{
+			for (final String entryName : entryNames) {
+				final InputStream in = Dog.class.getResourceAsStream("Dog.class");
+				try{
+					out.putNextEntry(new JarEntry(entryName));
+					final byte[] buffer = new byte[4096];
+					for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+						out.write(buffer, 0, read);
+					}
+					out.closeEntry();
+				}finally{
+					in.close();
+				}
+			}
+		}finally{
+			out.close();
+		}
+		return jar;
 	}
 
-	private String name;
-	private String surname;
-	private String address;
-	private int age;
-	private HumanType humanType;
-	private HumanType wannabe;
-	private Human friend;
-	private Dog dog;
-	
-	public Human(String name, String surname, String address, int age, HumanType humanType, HumanType wannabe, Human friend, Dog dog){
-		this.name = name;
-		this.surname = surname;
-		this.address = address;
-		this.age = age;
-		this.humanType = humanType;
-		this.wannabe = wannabe;
-		this.friend = friend;
-		this.setDog(dog);
+	@Test
+	public void testPreloadUnknownPackage(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("The package 'com.lma.unknown' was not found in the class path.");
+		MultiAssertBuilder.preloadPackages("com.lma.unknown");
 	}
 
-	public String getName() {
-		return name;
+	@Test
+	public void testLargeValuesAreTruncated(){
+		final List<Object> million = new ArrayList<Object>();
+		for (int i = 0; i < 1000000; i++) {
+			million.add(Integer.valueOf(i));
+		}
+		final String logs = captureFailureLogs(new MultiAssertBuilder(new Crate(million, null), new Crate(new ArrayList<Object>(), null))
+			.setAssertEqualFields("items")
+			.setRenderLimits(200, 5, 2));
+		Assert.assertTrue(logs.contains("Actual : '[0, 1, 2, 3, 4, ... (999995 more)]' / Expected : '[]'"));
+		Assert.assertTrue(logs.length() < 500);
 	}
 
-	public void setName(String name) {
-		this.name = name;
+	@Test
+	public void testCyclicValuesAreGuarded(){
+		final List<Object> cyclic = new ArrayList<Object>();
+		cyclic.add("head");
+		cyclic.add(cyclic);
+		final String logs = captureFailureLogs(new MultiAssertBuilder(new Crate(cyclic, new Careless()), new Crate(null, new Careless()))
+			.setAssertEqualFields("items", "label"));
+		Assert.assertTrue(logs.contains("Actual : '[head, [(cycle)]]' / Expected : 'null'"));
+		Assert.assertTrue(logs.contains("Actual : 'Careless{self=Careless{(cycle)}}' / Expected : 'Careless{self=Careless{(cycle)}}'"));
 	}
 
-	public String getSurname() {
-		return surname;
+	@Test
+	public void testObjectsAreRenderedFieldByField(){
+		final StringBuilder huge = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			huge.append("0123456789");
+		}
+		bob2.setName("bob");
+		bob2.setSurname("bobby");
+		final String logs = captureFailureLogs(new MultiAssertBuilder(new Crate(null, bob2), new Crate(null, huge))
+			.setAssertEqualFields("label")
+			.setRenderLimits(300, 3, 2));
+		Assert.assertTrue(logs.contains("Actual : 'Human{name=bob, surname=bobby, address=address22, ... (5 more)}' / Expected : '0123456789"));
+		Assert.assertTrue(logs.contains("... (truncated)"));
+		Assert.assertTrue(logs.length() < 1000);
 	}
 
-	public void setSurname(String surname) {
-		this.surname = surname;
+	@Test
+	public void testOwnToStringIsUsed(){
+		final String logs = captureFailureLogs(new MultiAssertBuilder(new Crate(null, new Amount(1250, "EUR")), new Crate(null, new Amount(1300, "EUR")))
+			.setAssertEqualFields("label"));
+		Assert.assertTrue(logs.contains("Actual : '12.50 EUR' / Expected : '13.00 EUR'"));
 	}
 
-	public String getAddress() {
-		return address;
+	@Test
+	public void testInvalidRenderLimits(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("Method setRenderLimits() - the limits must be greater than 0.");
+		new MultiAssertBuilder(bob1, bob2).setRenderLimits(100, 0, 1);
 	}
 
-	public void setAddress(String address) {
-		this.address = address;
+	@Test
+	public void testConsistentReadsWithStamp(){
+		final Gauge gauge = new Gauge(4, 10, 20);
+		new MultiAssertBuilder(gauge, new Gauge(0, 10, 20))
+			.setAssertEqualFields("low", "high")
+			.setConsistentReads("version", 3)
+			.runAssertions();
 	}
 
-	public int getAge() {
-		return age;
+	@Test
+	public void testConsistentReadsWithConcurrentWriter() throws InterruptedException{
+		final Gauge gauge = new Gauge(0, 0, 10);
+		final AtomicBoolean running = new AtomicBoolean(true);
+		final Thread writer = new Thread(new Runnable(){
+			public void run(){
+				for (int i = 1; running.get(); i++) {
+					gauge.update(i, i + 10);
+					Thread.yield();
+				}
+			}
+		});
+		writer.start();
+		try{
+			for (int i = 0; i < 2000; i++) {
+				new MultiAssertBuilder(gauge, gauge)
+					.setAssertEqualFields("low", "high", "dog.age")
+					.setConsistentReads("version", 100000)
+					.runAssertions();
+			}
+		}finally{
+			running.set(false);
+			writer.join();
+		}
 	}
 
-	public void setAge(int age) {
-		this.age = age;
+	@Test
+	public void testConsistentReadsWithoutStamp(){
+		new MultiAssertBuilder(bob1, bob2)
+			.setAssertNotEqualFields("address", "age", "friend.age")
+			.setAssertValue("dog.age", 5, true)
+			.setConsistentReads(3)
+			.runAssertions();
 	}
 
-	public HumanType getHumanType() {
-		return humanType;
+	@Test
+	public void testConsistentReadsDuringAnUpdate(){
+		expe.expect(IllegalStateException.class);
+		expe.expectMessage("No consistent view of the fields of the type 'com.lma.test.utils.Gauge' could be read in 5 attempt(s).");
+		new MultiAssertBuilder(new Gauge(7, 10, 20), new Gauge(0, 10, 20))
+			.setAssertEqualFields("low", "high")
+			.setConsistentReads("version", 5)
+			.runAssertions();
 	}
 
-	public void setHumanType(HumanType humanType) {
-		this.humanType = humanType;
+	@Test
+	public void testInvalidConsistentReads(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("Method setConsistentReads() - the number of attempts must be greater than 0.");
+		new MultiAssertBuilder(bob1, bob2).setConsistentReads(0);
 	}
 
-	public HumanType getWannabe() {
-		return wannabe;
+	private String captureFailureLogs(final MultiAssertBuilder builder){
+		final PrintStream out = System.out;
+		final ByteArrayOutputStream logs = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(logs));
+		try{
+			builder.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("error(s)"));
+		}finally{
+			System.setOut(out);
+		}
+		return logs.toString();
 	}
 
-	public void setWannabe(HumanType wannabe) {
-		this.wannabe = wannabe;
+	private String runAndCaptureLogs(final int parallelThreshold){
+		final PrintStream out = System.out;
+		final ByteArrayOutputStream logs = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(logs));
+		try{
+			new MultiAssertBuilder(bob1, bob2)
+				.setAssertNotEqualFields("dog", "surname", "humanType", "friend.age")
+				.setAssertEqualFields("name", "address", "age", "dog.name")
+				.setAssertNotNullFields("name", "friend")
+				.setAssertNullFields("dog.name", "wannabe")
+				.setAssertValue("dog.age", 10, true)
+				.setAssertValue("dog.name", "doddo", false)
+				.setParallelEvaluation(parallelThreshold)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertTrue(ae.getMessage().contains("error(s)"));
+		}finally{
+			System.setOut(out);
+		}
+		return logs.toString();
 	}
+}
+
+
+class Crate {
+
+	private List<Object> items;
+	private Object label;
 
-	public Human getFriend() {
-		return friend;
+	public Crate(List<Object> items, Object label){
+		this.items = items;
+		this.label = label;
 	}
+}
+
+
+class Careless {
 
-	public void setFriend(Human friend) {
-		this.friend = friend;
+	private Careless self = this;
+
+	@Override
+	public String toString() {
+		return "Careless " + this;
 	}
+}
 
-	public Dog getDog() {
-		return dog;
+
+class Amount {
+
+	private final long cents;
+	private final String currency;
+
+	public Amount(long cents, String currency){
+		this.cents = cents;
+		this.currency = currency;
 	}
 
-	public void setDog(Dog dog) {
-		this.dog = dog;
+	@Override
+	public String toString() {
+		return String.format("%d.%02d %s", cents / 100, cents % 100, currency);
 	}
 }
 
+
+class Gauge {
+
+	private final AtomicLong version;
+	private long low;
+	private long high;
+	private Dog dog;
+
+	public Gauge(long version, long low, long high){
+		this.version = new AtomicLong(version);
+		this.low = low;
+		this.high = high;
+		this.dog = new Dog("gauge", (int) low, null);
+	}
+
+	public void update(long low, long high){
+		version.incrementAndGet();
+		this.dog = null;
+		this.low = low;
+		this.high = high;
+		this.dog = new Dog("gauge", (int) low, null);
+		version.incrementAndGet();
+	}
+}
@@ -0,0 +1,125 @@
+package com.lma.test.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.lma.utils.AssertionPlan;
+import com.lma.utils.MultiAssertBuilder;
+
+public class ReconcileAssertBuilderTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	private AssertionPlan plan;
+
+	@Before
+	public void init(){
+		plan = new AssertionPlan(){
+			public MultiAssertBuilder configure(final MultiAssertBuilder builder){
+				return builder.setAssertEqualFields("age", "toy");
+			}
+		};
+	}
+
+	@Test
+	public void testUnorderedRecordsAreMatched(){
+		final List<Dog> actuals = new ArrayList<Dog>();
+		final List<Dog> expecteds = new ArrayList<Dog>();
+		for (int i = 0; i < 1000; i++) {
+			actuals.add(new Dog("dog" + i, i, "ball"));
+			expecteds.add(new Dog("dog" + i, i, "ball"));
+		}
+		Collections.shuffle(expecteds);
+		MultiAssertBuilder.reconcile(actuals, expecteds, "name")
+			.applying(plan)
+			.runAssertions();
+	}
+
+	@Test
+	public void testErrorsAreReportedWithTheirKey(){
+		final List<Dog> actuals = Arrays.asList(new Dog("rex", 3, "ball"), new Dog("youpi", 5, "bone"), new Dog("popo", 2, null), new Dog("rex", 3, "ball"));
+		final List<Dog> expecteds = Arrays.asList(new Dog("medor", 1, null), new Dog("youpi", 6, "bone"), new Dog("rex", 3, "ball"));
+		final PrintStream out = System.out;
+		final ByteArrayOutputStream logs = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(logs));
+		try{
+			MultiAssertBuilder.reconcile(actuals, expecteds, "name")
+				.applying(plan)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertEquals("See the logs for the details on the 4 error(s).", ae.getMessage());
+		}finally{
+			System.setOut(out);
+		}
+		final String output = logs.toString();
+		Assert.assertTrue(output.contains("[name=youpi] KO : the fields named 'age' are not equal but they should be."));
+		Assert.assertTrue(output.contains("KO : the actual records contain name 'rex' more than once."));
+		Assert.assertTrue(output.contains("KO : the actual record with name 'popo' has no expected record."));
+		Assert.assertTrue(output.contains("KO : the expected record with name 'medor' has no actual record."));
+	}
+
+	@Test
+	public void testKeysOnly(){
+		MultiAssertBuilder.reconcile(Arrays.asList(new Dog("rex", 3, null)), Arrays.asList(new Dog("rex", 4, "ball")), "name")
+			.runAssertions();
+	}
+
+	@Test
+	public void testUnknownKeyField(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("The field 'id' does not exist in the type 'com.lma.test.utils.Dog'. Check your String parameters.");
+		MultiAssertBuilder.reconcile(Arrays.asList(new Dog("rex", 3, null)), Arrays.asList(new Dog("rex", 3, null)), "id")
+			.runAssertions();
+	}
+
+	@Test
+	public void testSubFieldKey(){
+		final Human bob = new Human("bob", "bobby", "address", 25, Human.HumanType.BIG, Human.HumanType.THIN, null, new Dog("rex", 3, null));
+		final Human tom = new Human("tom", "tommy", "address", 30, Human.HumanType.BIG, Human.HumanType.THIN, null, new Dog("youpi", 5, null));
+		final Human bobAgain = new Human("bob", "bobby", "address", 25, Human.HumanType.BIG, Human.HumanType.THIN, null, new Dog("rex", 3, null));
+		final Human tomAgain = new Human("tom", "tommy", "address", 30, Human.HumanType.BIG, Human.HumanType.THIN, null, new Dog("youpi", 5, null));
+		MultiAssertBuilder.reconcile(Arrays.asList(bob, tom), Arrays.asList(tomAgain, bobAgain), "dog.name")
+			.runAssertions();
+	}
+
+	@Test
+	public void testNullParentOfSubFieldKey(){
+		final Human bob = new Human("bob", "bobby", "address", 25, Human.HumanType.BIG, Human.HumanType.THIN, null, null);
+		expe.expect(NullPointerException.class);
+		expe.expectMessage("The field value 'dog' cannot be null to fetch sub-field 'name'.");
+		MultiAssertBuilder.reconcile(Arrays.asList(bob), Arrays.asList(bob), "dog.name")
+			.runAssertions();
+	}
+
+	@Test
+	public void testWithoutDuplicateDetection(){
+		final List<Dog> actuals = Arrays.asList(new Dog("rex", 3, null), new Dog("rex", 3, null));
+		final List<Dog> expecteds = Arrays.asList(new Dog("rex", 3, null));
+		final PrintStream out = System.out;
+		final ByteArrayOutputStream logs = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(logs));
+		try{
+			MultiAssertBuilder.reconcile(actuals, expecteds, "name")
+				.detectingDuplicates(false)
+				.runAssertions();
+			Assert.fail();
+		}catch(final AssertionError ae){
+			Assert.assertEquals("See the logs for the details on the 1 error(s).", ae.getMessage());
+		}finally{
+			System.setOut(out);
+		}
+		Assert.assertTrue(logs.toString().contains("KO : the actual record with name 'rex' has no expected record."));
+	}
+}
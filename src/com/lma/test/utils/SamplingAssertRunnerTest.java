@@ -0,0 +1,161 @@
+package com.lma.test.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.lma.utils.AssertionPlan;
+import com.lma.utils.AssertionSink;
+import com.lma.utils.FailureStore;
+import com.lma.utils.MultiAssertBuilder;
+import com.lma.utils.SamplingAssertRunner;
+
+public class SamplingAssertRunnerTest {
+
+	@Rule
+	public ExpectedException expe = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private AssertionPlan plan;
+	private Human bob;
+	private Human bill;
+	private List<String> KOMessages;
+	private List<Throwable> errors;
+	private AssertionSink sink;
+
+	@Before
+	public void init(){
+		final Dog dog1 = new Dog("youpi", 5, null);
+		bob = new Human(null, "bobby", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, dog1);
+		bill = new Human(null, "billy", "address11", 26, Human.HumanType.BIG, Human.HumanType.THIN, null, new Dog("popo", 5, null));
+		plan = new AssertionPlan(){
+			public MultiAssertBuilder configure(final MultiAssertBuilder builder){
+				return builder.setAssertEqualFields("surname", "dog.name");
+			}
+		};
+		KOMessages = new ArrayList<String>();
+		errors = new ArrayList<Throwable>();
+		sink = new AssertionSink(){
+			public void sampleFailed(final Class<?> examinedClass, final List<String> messages){
+				Assert.assertEquals(Human.class, examinedClass);
+				KOMessages.addAll(messages);
+			}
+			public void sampleError(final Object actual, final Throwable error){
+				errors.add(error);
+			}
+		};
+	}
+
+	@Test
+	public void testOneOutOfN(){
+		final SamplingAssertRunner runner = new SamplingAssertRunner(plan, sink).sampleEvery(3);
+		for (int i = 0; i < 9; i++) {
+			Assert.assertEquals(i % 3 == 0, runner.offer(bob, bill));
+		}
+		Assert.assertEquals(9, runner.getOfferedCount());
+		Assert.assertEquals(3, runner.getCheckedCount());
+		Assert.assertEquals(3, runner.getFailedCount());
+		Assert.assertEquals(6, runner.getKOCount());
+		Assert.assertEquals(6, KOMessages.size());
+		Assert.assertTrue(KOMessages.get(0).startsWith("KO : the fields named 'surname' are not equal but they should be."));
+	}
+
+	@Test
+	public void testNoErrorIsPublishedForEqualPairs(){
+		final SamplingAssertRunner runner = new SamplingAssertRunner(plan, sink);
+		for (int i = 0; i < 5; i++) {
+			runner.offer(bob, bob);
+		}
+		Assert.assertEquals(5, runner.getCheckedCount());
+		Assert.assertEquals(0, runner.getFailedCount());
+		Assert.assertTrue(KOMessages.isEmpty());
+	}
+
+	@Test
+	public void testExceptionsAreNeverThrown(){
+		final SamplingAssertRunner runner = new SamplingAssertRunner(plan, new AssertionSink(){
+			public void sampleFailed(final Class<?> examinedClass, final List<String> messages){
+				throw new IllegalStateException("sink is down");
+			}
+			public void sampleError(final Object actual, final Throwable error){
+				errors.add(error);
+			}
+		});
+		Assert.assertTrue(runner.offer(bob, new Dog("popo", 5, null)));
+		Assert.assertTrue(runner.offer(bob, bill));
+		Assert.assertEquals(2, runner.getFailedCount());
+		Assert.assertEquals(1, errors.size());
+		Assert.assertEquals("Both parameters must be of the same type.", errors.get(0).getMessage());
+	}
+
+	@Test
+	public void testErrorsOfThePlanAndOfTheSinkAreNeverThrown(){
+		final Link first = new Link();
+		final Link second = new Link();
+		first.next = first;
+		second.next = second;
+		final SamplingAssertRunner runner = new SamplingAssertRunner(new AssertionPlan(){
+			public MultiAssertBuilder configure(final MultiAssertBuilder builder){
+				return builder.setAssertEqualFields("next");
+			}
+		}, new AssertionSink(){
+			public void sampleFailed(final Class<?> examinedClass, final List<String> messages){
+				// Nothing to do.
+			}
+			public void sampleError(final Object actual, final Throwable error){
+				errors.add(error);
+				throw new LinkageError("sink is broken");
+			}
+		});
+		Assert.assertTrue(runner.offer(first, second));
+		Assert.assertEquals(1, runner.getFailedCount());
+		Assert.assertEquals(1, errors.size());
+		Assert.assertTrue(errors.get(0) instanceof StackOverflowError);
+	}
+
+	@Test
+	public void testErrorsSentToAFailureStoreAreCounted(){
+		final FailureStore store = new FailureStore(new File(folder.getRoot(), "canary.ko"), 10);
+		try{
+			final SamplingAssertRunner runner = new SamplingAssertRunner(new AssertionPlan(){
+				public MultiAssertBuilder configure(final MultiAssertBuilder builder){
+					return plan.configure(builder).setFailureStore(store);
+				}
+			}, sink);
+			runner.offer(bob, bill);
+			Assert.assertEquals(2, runner.getKOCount());
+			Assert.assertEquals(2, store.getCount());
+			Assert.assertEquals(1, KOMessages.size());
+			Assert.assertTrue(KOMessages.get(0).startsWith("KO : 2 error(s) were sent to the failure store"));
+		}finally{
+			store.close();
+		}
+	}
+
+	@Test
+	public void testIntervalGrowsOverTheBudget(){
+		final SamplingAssertRunner runner = new SamplingAssertRunner(plan, sink).cpuBudget(1, TimeUnit.NANOSECONDS);
+		for (int i = 0; i < 1000; i++) {
+			runner.offer(bob, bob);
+		}
+		Assert.assertTrue(runner.getSampleInterval() > 1);
+		Assert.assertTrue(runner.getCheckedCount() < 1000);
+	}
+
+	@Test
+	public void testInvalidInterval(){
+		expe.expect(IllegalArgumentException.class);
+		expe.expectMessage("Method sampleEvery() - the interval must be greater than 0.");
+		new SamplingAssertRunner(plan, sink).sampleEvery(0);
+	}
+}
@@ -0,0 +1,127 @@
+package com.lma.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * AllocationAssertBuilder asserts that an operation does not allocate more memory than a budget per run.
+ * The operation is run a number of times to warm it up, then the bytes allocated by the current thread during all the
+ * measured runs are read from the JVM per-thread allocation counter and averaged per run.
+ * The results are reported like the field assertions of MultiAssertBuilder. See {@link MeasuredAssertBuilder}.
+ * It requires a JVM supporting {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long) getThreadAllocatedBytes()},
+ * with the measure enabled, which is the default of HotSpot. The measure is never enabled by this class, as it is a setting of the whole JVM.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code MultiAssertBuilder.assertAllocation(operation)
+ * 	.warmUp(10000)
+ * 	.iterations(10000)
+ * 	.noAllocation()
+ * 	.runAssertions();
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class AllocationAssertBuilder extends MeasuredAssertBuilder<AllocationAssertBuilder> {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String NEGATIVE_BUDGET = "Method maxBytesPerInvocation() - the budget cannot be negative.";
+	private static final String NOT_SUPPORTED = "The JVM does not support the measure of the memory allocated by a thread.";
+	private static final String NOT_ENABLED = "The measure of the memory allocated by a thread is disabled in the JVM. Enable it with ThreadMXBean.setThreadAllocatedMemoryEnabled(true).";
+	private static final String OK_MESSAGE = "OK : '%s' allocated %.1f bytes per run, within the budget of %d bytes.";
+	private static final String KO_MESSAGE = "KO : '%s' allocated %.1f bytes per run but it should allocate at most %d bytes.\n	Runs : %d / Total : %d bytes";
+	private static final String ALLOCATIONS = "allocations";
+	private static final String ALLOCATION = "allocation";
+
+	/**
+	 * The highest number of bytes allowed per run. 0 by default.
+	 */
+	private long maxBytesPerInvocation;
+
+	/**
+	 * Constructor for an AllocationAssertBuilder. See {@link MultiAssertBuilder#assertAllocation(Runnable) MultiAssertBuilder.assertAllocation()}.
+	 *
+	 * @param operation (Runnable) the operation to measure
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 */
+	AllocationAssertBuilder(final Runnable operation, final boolean verbose){
+		super(operation, verbose, ALLOCATIONS, ALLOCATION);
+	}
+
+	/**
+	 * Sets the highest number of bytes the operation can allocate per run, on average.
+	 *
+	 * @param maxBytesPerInvocation (long) the budget in bytes
+	 * @return this instance of AllocationAssertBuilder
+	 */
+	public AllocationAssertBuilder maxBytesPerInvocation(final long maxBytesPerInvocation){
+		if(maxBytesPerInvocation < 0){
+			throw new IllegalArgumentException(NEGATIVE_BUDGET);
+		}
+		this.maxBytesPerInvocation = maxBytesPerInvocation;
+		return this;
+	}
+
+	/**
+	 * Sets the operation to be asserted as allocating nothing. This is the default budget.
+	 *
+	 * @return this instance of AllocationAssertBuilder
+	 */
+	public AllocationAssertBuilder noAllocation(){
+		return maxBytesPerInvocation(0);
+	}
+
+	/**
+	 * Checks that the JVM can measure the memory allocated by a thread, before the operation is run.
+	 *
+	 * @throws IllegalStateException : if the JVM does not support the measure, or if it is disabled.
+	 */
+	@Override
+	void checkMeasurable(){
+		getThreadBean();
+	}
+
+	/**
+	 * Reads the bytes allocated by the current thread during all the measured runs, and asserts their average against the budget.
+	 */
+	@Override
+	void measure(){
+		final com.sun.management.ThreadMXBean threadBean = getThreadBean();
+		final long threadId = Thread.currentThread().getId();
+		final long calibrationStart = threadBean.getThreadAllocatedBytes(threadId);
+		final long measureStart = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < iterations; i++) {
+			operation.run();
+		}
+		final long measureEnd = threadBean.getThreadAllocatedBytes(threadId);
+		final long allocatedBytes = Math.max(0, (measureEnd - measureStart) - (measureStart - calibrationStart));
+		final double bytesPerInvocation = (double) allocatedBytes / iterations;
+		if(bytesPerInvocation <= maxBytesPerInvocation){
+			report.logOKMessage(String.format(OK_MESSAGE, name, bytesPerInvocation, maxBytesPerInvocation));
+		}else{
+			report.logKOMessage(String.format(KO_MESSAGE, name, bytesPerInvocation, maxBytesPerInvocation, iterations, allocatedBytes));
+		}
+	}
+
+	/**
+	 * Retrieves the thread bean of the JVM, whose measure of the allocated memory must be enabled.
+	 *
+	 * @throws IllegalStateException : if the JVM does not support the measure, or if it is disabled.
+	 */
+	private static com.sun.management.ThreadMXBean getThreadBean(){
+		final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if(!(threadBean instanceof com.sun.management.ThreadMXBean)){
+			throw new IllegalStateException(NOT_SUPPORTED);
+		}
+		final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+		if(!allocationBean.isThreadAllocatedMemorySupported()){
+			throw new IllegalStateException(NOT_SUPPORTED);
+		}
+		if(!allocationBean.isThreadAllocatedMemoryEnabled()){
+			throw new IllegalStateException(NOT_ENABLED);
+		}
+		return allocationBean;
+	}
+}
@@ -0,0 +1,91 @@
+package com.lma.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AssertionExecutors creates the thread pools used by the builders and the runners of this package.
+ * All their threads are named daemon threads, so an assertion never keeps the JVM alive.
+ * It also tells apart the errors of a task which must reach the caller from those which only concern the task.
+ */
+final class AssertionExecutors {
+
+	private static final String THREAD_NAME = "MultiAssertBuilder-%s-%d";
+
+	/**
+	 * Number of threads of the shared pool : one per processor.
+	 */
+	private static final int SHARED_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+	private AssertionExecutors(){
+	}
+
+	/**
+	 * Rethrows the errors that must reach the caller : ThreadDeath, and the VirtualMachineErrors other than a StackOverflowError,
+	 * after which the JVM may not be able to run anything. The other errors only concern the checked pair, or the task.
+	 *
+	 * @param error (Throwable) an error caught while running a pair of objects or a task.
+	 */
+	static void rethrowIfFatal(final Throwable error){
+		if(error instanceof ThreadDeath){
+			throw (ThreadDeath) error;
+		}
+		if((error instanceof VirtualMachineError) && !(error instanceof StackOverflowError)){
+			throw (VirtualMachineError) error;
+		}
+	}
+
+	/**
+	 * Creates a new pool with a fixed number of threads. It must be shut down by the caller.
+	 * 
+	 * @param name (String) the name of the pool, used in the names of its threads.
+	 * @param size (int) the number of threads.
+	 * @return (ExecutorService) the new pool.
+	 */
+	static ExecutorService newFixedPool(final String name, final int size){
+		return Executors.newFixedThreadPool(size, new DaemonThreadFactory(name));
+	}
+
+	/**
+	 * Retrieves the pool shared by all the builders to split their work, created on first use and never shut down.
+	 * Its tasks must never wait for other tasks of the same pool.
+	 */
+	static ExecutorService getSharedPool(){
+		return SharedPoolHolder.SHARED_POOL;
+	}
+
+	/**
+	 * Retrieves the number of threads of the shared pool.
+	 */
+	static int getSharedPoolSize(){
+		return SHARED_POOL_SIZE;
+	}
+
+	/**
+	 * Holds the shared pool, so it is only created when a builder needs it.
+	 */
+	private static final class SharedPoolHolder {
+		private static final ExecutorService SHARED_POOL = newFixedPool("shared", SHARED_POOL_SIZE);
+	}
+
+	/**
+	 * Creates named daemon threads.
+	 */
+	private static final class DaemonThreadFactory implements ThreadFactory {
+
+		private final String name;
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		private DaemonThreadFactory(final String name){
+			this.name = name;
+		}
+
+		public Thread newThread(final Runnable runnable) {
+			final Thread thread = new Thread(runnable, String.format(THREAD_NAME, name, threadCount.incrementAndGet()));
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
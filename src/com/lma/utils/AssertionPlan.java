@@ -0,0 +1,28 @@
+package com.lma.utils;
+
+/**
+ * AssertionPlan describes the assertions to configure on a MultiAssertBuilder, so that the same field settings
+ * can be applied to many pairs of objects by the runners of this package.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code new AssertionPlan(){
+ * 	public MultiAssertBuilder configure(final MultiAssertBuilder builder){
+ * 		return builder
+ * 			.setAssertEqualFields("surname", "dog.name")
+ * 			.setAssertNotNullFields("age");
+ * 	}
+ * }}</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public interface AssertionPlan {
+
+	/**
+	 * Configures the assertions to run on a freshly built MultiAssertBuilder.
+	 *
+	 * @param builder (MultiAssertBuilder) the builder of one pair of objects.
+	 * @return (MultiAssertBuilder) the configured builder.
+	 */
+	MultiAssertBuilder configure(MultiAssertBuilder builder);
+}
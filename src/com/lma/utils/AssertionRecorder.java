@@ -0,0 +1,71 @@
+package com.lma.utils;
+
+import com.lma.utils.MultiAssertBuilder.AssertionType;
+
+/**
+ * AssertionRecorder receives profiling events from all the MultiAssertBuilder instances, so their cost can be correlated
+ * with the other events of a profiling session, for example by committing JDK Flight Recorder events.
+ * It is registered for the whole JVM with {@link MultiAssertBuilder#setRecorder(AssertionRecorder) MultiAssertBuilder.setRecorder()}.
+ * When no recorder is registered, or while {@link #isEnabled()} returns false, nothing is measured nor allocated.
+ * The slow checks are only timed when {@link #getSlowCheckThreshold()} is lower than Long.MAX_VALUE. Both are read once per run.
+ * The methods can be called from several threads at the same time, and must be fast.<br /><br />
+ *
+ * How to use with JDK Flight Recorder (JDK 11+), where AssertionRunJfrEvent extends jdk.jfr.Event :<br /><br />
+ * <pre>
+ * {@code MultiAssertBuilder.setRecorder(new AssertionRecorder(){
+ * 	public boolean isEnabled(){
+ * 		return EventType.getEventType(AssertionRunJfrEvent.class).isEnabled();
+ * 	}
+ * 	public long getSlowCheckThreshold(){
+ * 		return TimeUnit.MILLISECONDS.toNanos(1);
+ * 	}
+ * 	public void recordRun(final AssertionRunEvent event){
+ * 		final AssertionRunJfrEvent jfrEvent = new AssertionRunJfrEvent();
+ * 		if(jfrEvent.isEnabled()){
+ * 			jfrEvent.examinedClass = event.getExaminedClass();
+ * 			jfrEvent.checkCount = event.getCheckCount();
+ * 			jfrEvent.KOCount = event.getKOCount();
+ * 			jfrEvent.commit();
+ * 		}
+ * 	}
+ * 	public void recordSlowCheck(final Class<?> examinedClass, final String fieldName, final AssertionType assertionType, final long duration){
+ * 	}
+ * });
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public interface AssertionRecorder {
+
+	/**
+	 * Determines if the recorder records anything now, for example if its JDK Flight Recorder event type is enabled.
+	 * Read at the start of each run : when false, the run is not measured and no event is created.
+	 *
+	 * @return (boolean) true to measure the run.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Retrieves the duration from which a check is recorded as slow.
+	 *
+	 * @return (long) the duration in nanoseconds, Long.MAX_VALUE to never record the checks.
+	 */
+	long getSlowCheckThreshold();
+
+	/**
+	 * Records the end of the assertions of a MultiAssertBuilder.
+	 *
+	 * @param event (AssertionRunEvent) the description of the run.
+	 */
+	void recordRun(AssertionRunEvent event);
+
+	/**
+	 * Records a check that lasted longer than {@link #getSlowCheckThreshold()}.
+	 *
+	 * @param examinedClass (Class<?>) the class of the objects being examined.
+	 * @param fieldName (String) the name of the field, with the dot notation for sub-fields.
+	 * @param assertionType (AssertionType) the type of assertion.
+	 * @param duration (long) the duration of the check, in nanoseconds, including the reading of the values.
+	 */
+	void recordSlowCheck(Class<?> examinedClass, String fieldName, AssertionType assertionType, long duration);
+}
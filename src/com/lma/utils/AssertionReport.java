@@ -0,0 +1,168 @@
+package com.lma.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.lma.utils.MultiAssertBuilder.AssertionType;
+
+/**
+ * AssertionReport collects the logs of the assertions that went well and wrong, and prints them at the end of the assertions.
+ * It is shared by all the assertion builders of this package, so they all report their results the same way.
+ */
+final class AssertionReport {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String MAIN_ASSERTION_ERROR_MESSAGE = "See the logs for the details on the %d error(s).";
+	private static final String STORED_KO_MESSAGES = "KO : %d error(s) were sent to the failure store '%s'.";
+
+	/**
+	 * Activates the verbose mode.
+	 * True : all the logs will be displayed.
+	 * False : only errors will be displayed in the logs, if any.
+	 */
+	private final boolean verbose;
+
+	/**
+	 * Collection of logs for assertions that went wrong.
+	 */
+	private final List<String> KOMessages = new ArrayList<String>();
+
+	/**
+	 * Number of assertions that went wrong.
+	 */
+	private int KOCount;
+
+	/**
+	 * Store receiving the logs of the assertions that went wrong instead of KOMessages. Null if not set.
+	 */
+	private FailureStore store;
+
+	/**
+	 * Prefix added to the logs sent to the store. Null if not set.
+	 */
+	private String storePrefix;
+
+	/**
+	 * Constructor for an AssertionReport.
+	 * 
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 */
+	AssertionReport(final boolean verbose){
+		this.verbose = verbose;
+	}
+
+	/**
+	 * Determines if the verbose mode is on.
+	 */
+	boolean isVerbose(){
+		return verbose;
+	}
+
+	/**
+	 * Forgets all the logs, before running the assertions again.
+	 */
+	void clear(){
+		KOMessages.clear();
+		KOCount = 0;
+	}
+
+	/**
+	 * Sends the logs of the assertions that went wrong to a store, instead of keeping them all in memory.
+	 * 
+	 * @param store (FailureStore) the store, or null to keep the logs in memory.
+	 * @param storePrefix (String) the prefix added to each log sent to the store, or null.
+	 */
+	void setStore(final FailureStore store, final String storePrefix){
+		this.store = store;
+		this.storePrefix = storePrefix;
+	}
+
+	/**
+	 * Retrieves the store receiving the logs of the assertions that went wrong. Null if not set.
+	 */
+	FailureStore getStore(){
+		return store;
+	}
+
+	/**
+	 * Logs a message. To be used when an assertion is successful. It is only printed in verbose mode, and never kept.
+	 */
+	void logOKMessage(final String message) {
+		if(verbose){
+			System.out.println(message);
+		}
+	}
+
+	/**
+	 * Logs a message. To be used when an assertion went wrong. It will be printed at the end of the assertions.
+	 */
+	void logKOMessage(final String message) {
+		logKOMessage(null, null, message);
+	}
+
+	/**
+	 * Logs a message for a field and an assertion type. To be used when an assertion went wrong.
+	 * It will be printed at the end of the assertions, or sent to the store if one is set.
+	 */
+	void logKOMessage(final String fieldName, final AssertionType assertionType, final String message) {
+		KOCount++;
+		if(store!=null){
+			store.add(fieldName, assertionType, (storePrefix!=null) ? storePrefix + message : message);
+		}else{
+			KOMessages.add(message);
+		}
+	}
+
+	/**
+	 * Counts assertions that went wrong whose logs were already sent to the store by another report.
+	 */
+	void countStoredKOMessages(final int count) {
+		KOCount += count;
+	}
+
+	/**
+	 * Retrieves the number of assertions that went wrong.
+	 */
+	int getKOCount(){
+		return KOCount;
+	}
+
+	/**
+	 * Retrieves the logs of the assertions that went wrong, kept in memory. Empty if they were sent to a store.
+	 */
+	List<String> getKOMessages(){
+		return Collections.unmodifiableList(KOMessages);
+	}
+
+	/**
+	 * Prints the logs at the end of the assertions.
+	 * If a store is set, only the number of errors of this report and the spill file are printed :
+	 * the store can be shared by many builders, and its summary is printed by its owner, once the run is over.
+	 * 
+	 * @param summary (String) the summary line, printed in verbose mode.
+	 * @throws AssertionError : if at least one assertion went wrong.
+	 */
+	void printEndLog(final String summary) {
+		final int KOSize = KOCount;
+		if(KOSize>0){
+			if(store!=null){
+				store.flush();
+				System.out.println(String.format(STORED_KO_MESSAGES, KOSize, store.getSpillFile().getPath()));
+			}
+			for (final String message : KOMessages) {
+				System.out.println(message);
+			}
+			if(verbose){
+				System.out.println(summary);
+				System.out.println();
+			}
+			throw new AssertionError(String.format(MAIN_ASSERTION_ERROR_MESSAGE, KOSize));
+		} else if(verbose){
+			System.out.println(summary);
+			System.out.println();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.lma.utils;
+
+/**
+ * AssertionRunEvent describes the assertions of one MultiAssertBuilder, for an {@link AssertionRecorder}.
+ * The assertions run in three phases : the resolution of the fields and of the checks to run,
+ * the checks themselves, and the report of their results.
+ *
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public final class AssertionRunEvent {
+
+	private final Class<?> examinedClass;
+	private final int fieldCount;
+	private final int checkCount;
+	private final int KOCount;
+	private final long resolveDuration;
+	private final long checkDuration;
+	private final long reportDuration;
+
+	AssertionRunEvent(final Class<?> examinedClass, final int fieldCount, final int checkCount, final int KOCount,
+			final long resolveDuration, final long checkDuration, final long reportDuration){
+		this.examinedClass = examinedClass;
+		this.fieldCount = fieldCount;
+		this.checkCount = checkCount;
+		this.KOCount = KOCount;
+		this.resolveDuration = resolveDuration;
+		this.checkDuration = checkDuration;
+		this.reportDuration = reportDuration;
+	}
+
+	/**
+	 * Retrieves the class of the objects being examined.
+	 */
+	public Class<?> getExaminedClass(){
+		return examinedClass;
+	}
+
+	/**
+	 * Retrieves the number of fields of the examined class, including the fields of its super classes.
+	 */
+	public int getFieldCount(){
+		return fieldCount;
+	}
+
+	/**
+	 * Retrieves the number of checks run : fields, sub-fields and values.
+	 */
+	public int getCheckCount(){
+		return checkCount;
+	}
+
+	/**
+	 * Retrieves the number of assertions that went wrong.
+	 */
+	public int getKOCount(){
+		return KOCount;
+	}
+
+	/**
+	 * Retrieves the duration of the resolution of the fields and of the checks, in nanoseconds.
+	 */
+	public long getResolveDuration(){
+		return resolveDuration;
+	}
+
+	/**
+	 * Retrieves the duration of the checks, in nanoseconds.
+	 */
+	public long getCheckDuration(){
+		return checkDuration;
+	}
+
+	/**
+	 * Retrieves the duration of the report of the results, in nanoseconds.
+	 */
+	public long getReportDuration(){
+		return reportDuration;
+	}
+}
@@ -0,0 +1,43 @@
+package com.lma.utils;
+
+import java.util.List;
+
+/**
+ * AssertionSink receives the results of the pairs of objects checked by a {@link SamplingAssertRunner},
+ * instead of the AssertionError thrown by the builders, for example to publish them as metrics or in a log of the application.
+ * The methods can be called from several threads at the same time, and must be fast. The exceptions and errors they throw are ignored,
+ * except ThreadDeath and the VirtualMachineErrors other than a StackOverflowError.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code new AssertionSink(){
+ * 	public void sampleFailed(final Class<?> examinedClass, final List<String> KOMessages){
+ * 		metrics.counter("canary.ko", examinedClass.getSimpleName()).increment(KOMessages.size());
+ * 		logger.warn("Canary mismatch : {}", KOMessages.get(0));
+ * 	}
+ * 	public void sampleError(final Object actual, final Throwable error){
+ * 		logger.warn("Canary check could not run", error);
+ * 	}
+ * }}</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public interface AssertionSink {
+
+	/**
+	 * Receives the errors of a checked pair of objects. Only called if at least one assertion went wrong.
+	 *
+	 * @param examinedClass (Class<?>) the class of the objects.
+	 * @param KOMessages (List<String>) the messages of the assertions that went wrong. If the plan sends them to a FailureStore,
+	 * the list only contains one message with their number and the spill file of the store.
+	 */
+	void sampleFailed(Class<?> examinedClass, List<String> KOMessages);
+
+	/**
+	 * Receives the exception that prevented a pair of objects from being checked, like an unknown field name in the plan.
+	 *
+	 * @param actual (Object) the Object to test.
+	 * @param error (Throwable) the exception or the error thrown by the plan, like a StackOverflowError from a cyclic equals().
+	 */
+	void sampleError(Object actual, Throwable error);
+}
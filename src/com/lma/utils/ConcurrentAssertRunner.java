@@ -0,0 +1,285 @@
+package com.lma.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * ConcurrentAssertRunner runs the same AssertionPlan on many pairs of objects whose values are loaded lazily,
+ * for example from fixture files or from a local stand-in service.
+ * Each task loads its actual and expected objects and runs its assertions on a pool of threads
+ * bounded by the maximum concurrency, so the loads waiting on I/O overlap.
+ * The tasks can be added one by one, or streamed from two Iterables of sources, which are only read while the tasks run :
+ * at most twice the maximum concurrency of tasks are submitted and not reported yet, so any number of pairs can be run.
+ * The errors of each task are printed once it and all the tasks before it are done, in the order the tasks were added,
+ * and all the tasks are counted in the result.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code new ConcurrentAssertRunner(plan, 16)
+ * 	.addTask(actualSource1, expectedSource1)
+ * 	.addTasks(actualSources, expectedSources)
+ * 	.runAssertions();
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class ConcurrentAssertRunner {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String PLAN_IS_NULL_PARAMETER = "'plan' parameter is null in constructor.";
+	private static final String MAX_CONCURRENCY_NOT_POSITIVE = "'maxConcurrency' parameter must be greater than 0.";
+	private static final String SOURCE_IS_NULL_PARAMETER = "Method addTask() - source parameters cannot be null.";
+	private static final String SOURCES_ARE_NULL_PARAMETER = "Method addTasks() - sources parameters cannot be null.";
+	private static final String STREAMED_SOURCE_IS_NULL = "The sources of task #%d cannot be null.";
+	private static final String SOURCES_NOT_SAME_SIZE = "The actual and expected sources do not have the same number of elements : task #%d has no %s source.";
+	private static final String ACTUAL = "actual";
+	private static final String EXPECTED = "expected";
+	private static final String TASK_KO_HEADER = "=> Task #%d ended with %d error(s) :";
+	private static final String TASK_EXCEPTION = "=> Task #%d could not be run : %s";
+	private static final String EXECUTE_OUT_SUCCESS = "=> ConcurrentAssertRunner ran %d task(s) successfully with no errors and lasted %.3f milliseconds.";
+	private static final String EXECUTE_OUT_MSG_ERROR_MAIN = "=> ConcurrentAssertRunner ran %d task(s) with %d failed task(s) and lasted %.3f milliseconds.";
+	private static final String MAIN_ASSERTION_ERROR_MESSAGE = "%d of %d task(s) failed. See the logs for the details on the %d error(s).";
+	private static final String INTERRUPTED = "ConcurrentAssertRunner was interrupted while waiting for its tasks.";
+
+	/**
+	 * The plan to apply on each pair of objects.
+	 */
+	private final AssertionPlan plan;
+
+	/**
+	 * The maximum number of tasks running at the same time.
+	 */
+	private final int maxConcurrency;
+
+	/**
+	 * Activates the verbose mode of the runner and of each builder.
+	 */
+	private final boolean verbose;
+
+	/**
+	 * Collection of the sources of the tasks to run, in the order they were added.
+	 */
+	private final List<TaskSources> taskSources = new ArrayList<TaskSources>();
+
+	/**
+	 * Number of tasks run, of failed tasks and of errors, while the tasks are run.
+	 */
+	private int taskCount;
+	private int failedTasks;
+	private int KOSize;
+
+	/**
+	 * Constructor for a ConcurrentAssertRunner. Mode verbose is off by default.
+	 *
+	 * @param plan (AssertionPlan) the assertions to run on each pair of objects
+	 * @param maxConcurrency (int) the maximum number of tasks running at the same time
+	 */
+	public ConcurrentAssertRunner(final AssertionPlan plan, final int maxConcurrency){
+		this(plan, maxConcurrency, false);
+	}
+
+	/**
+	 * Constructor for a ConcurrentAssertRunner. Verbose mode can be set manually.
+	 *
+	 * @param plan (AssertionPlan) the assertions to run on each pair of objects
+	 * @param maxConcurrency (int) the maximum number of tasks running at the same time
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 */
+	public ConcurrentAssertRunner(final AssertionPlan plan, final int maxConcurrency, final boolean verbose){
+		if(plan == null){
+			throw new IllegalArgumentException(PLAN_IS_NULL_PARAMETER);
+		}
+		if(maxConcurrency <= 0){
+			throw new IllegalArgumentException(MAX_CONCURRENCY_NOT_POSITIVE);
+		}
+		this.plan = plan;
+		this.maxConcurrency = maxConcurrency;
+		this.verbose = verbose;
+	}
+
+	/**
+	 * Adds a task to run. The sources are only called when the task runs, on one of the runner threads.
+	 *
+	 * @param actualSource (Callable<?>) loads the Object to test
+	 * @param expectedSource (Callable<?>) loads the Object containing the target values
+	 * @return this instance of ConcurrentAssertRunner
+	 */
+	public ConcurrentAssertRunner addTask(final Callable<?> actualSource, final Callable<?> expectedSource){
+		if(actualSource == null || expectedSource == null){
+			throw new IllegalArgumentException(SOURCE_IS_NULL_PARAMETER);
+		}
+		taskSources.add(new TaskSources(Collections.singletonList(actualSource), Collections.singletonList(expectedSource)));
+		return this;
+	}
+
+	/**
+	 * Adds a task for each pair of sources of two Iterables, read at the same pace. The Iterables are only read while the tasks run,
+	 * a few tasks ahead of the running ones, so they can produce their sources lazily, for example from a directory of fixture files.
+	 *
+	 * @param actualSources (Iterable<? extends Callable<?>>) the sources loading the Objects to test
+	 * @param expectedSources (Iterable<? extends Callable<?>>) the sources loading the Objects containing the target values, in the same order
+	 * @return this instance of ConcurrentAssertRunner
+	 */
+	public ConcurrentAssertRunner addTasks(final Iterable<? extends Callable<?>> actualSources, final Iterable<? extends Callable<?>> expectedSources){
+		if(actualSources == null || expectedSources == null){
+			throw new IllegalArgumentException(SOURCES_ARE_NULL_PARAMETER);
+		}
+		taskSources.add(new TaskSources(actualSources, expectedSources));
+		return this;
+	}
+
+	/**
+	 * Runs all the tasks, waits for them to end and prints the errors of each failed task.
+	 *
+	 * @throws AssertionError : if at least one task failed.
+	 * @throws IllegalArgumentException : if a streamed source is null, or if two streamed Iterables do not have the same number of sources.
+	 */
+	public void runAssertions(){
+		final long startTime = System.nanoTime();
+		taskCount = 0;
+		failedTasks = 0;
+		KOSize = 0;
+		runTasks();
+		final double durationInMilliseconds = (double) (System.nanoTime() - startTime) / 1000000.0f;
+		if(failedTasks>0){
+			if(verbose){
+				System.out.println(String.format(EXECUTE_OUT_MSG_ERROR_MAIN, taskCount, failedTasks, durationInMilliseconds));
+				System.out.println();
+			}
+			throw new AssertionError(String.format(MAIN_ASSERTION_ERROR_MESSAGE, failedTasks, taskCount, KOSize));
+		} else if(verbose){
+			System.out.println(String.format(EXECUTE_OUT_SUCCESS, taskCount, durationInMilliseconds));
+			System.out.println();
+		}
+	}
+
+	/**
+	 * Submits the tasks to a bounded pool as their sources are read, and reports their results in the order of the tasks.
+	 * When twice the maximum concurrency of tasks are waiting to be reported, the oldest one is waited for before the next one is submitted.
+	 */
+	private void runTasks() {
+		final LinkedList<Future<TaskResult>> pendingResults = new LinkedList<Future<TaskResult>>();
+		ExecutorService executor = null;
+		try{
+			for (final TaskSources sources : taskSources) {
+				final Iterator<? extends Callable<?>> actualSources = sources.actualSources.iterator();
+				final Iterator<? extends Callable<?>> expectedSources = sources.expectedSources.iterator();
+				while(actualSources.hasNext() || expectedSources.hasNext()){
+					final int taskIndex = taskCount + pendingResults.size();
+					if(!actualSources.hasNext() || !expectedSources.hasNext()){
+						throw new IllegalArgumentException(String.format(SOURCES_NOT_SAME_SIZE, taskIndex, actualSources.hasNext() ? EXPECTED : ACTUAL));
+					}
+					final Callable<?> actualSource = actualSources.next();
+					final Callable<?> expectedSource = expectedSources.next();
+					if(actualSource == null || expectedSource == null){
+						throw new IllegalArgumentException(String.format(STREAMED_SOURCE_IS_NULL, taskIndex));
+					}
+					if(executor == null){
+						executor = AssertionExecutors.newFixedPool("runner", maxConcurrency);
+					}
+					if(pendingResults.size() >= 2 * maxConcurrency){
+						report(pendingResults.removeFirst());
+					}
+					pendingResults.add(executor.submit(newTask(actualSource, expectedSource)));
+				}
+			}
+			while(!pendingResults.isEmpty()){
+				report(pendingResults.removeFirst());
+			}
+		}finally{
+			if(executor != null){
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Creates the task loading a pair of objects and running the plan on them.
+	 * Any error of the task is kept in its result, except the fatal errors which reach the caller.
+	 */
+	private Callable<TaskResult> newTask(final Callable<?> actualSource, final Callable<?> expectedSource){
+		return new Callable<TaskResult>(){
+			public TaskResult call(){
+				try{
+					final MultiAssertBuilder builder = plan.configure(new MultiAssertBuilder(actualSource.call(), expectedSource.call(), verbose));
+					final List<String> KOMessages = new ArrayList<String>(builder.evaluateAssertions());
+					return new TaskResult(KOMessages, builder.getKOCount(), null);
+				}catch(final Throwable error){
+					AssertionExecutors.rethrowIfFatal(error);
+					return new TaskResult(null, 0, error);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Waits for the result of the oldest task not reported yet, then prints its errors and counts them.
+	 */
+	private void report(final Future<TaskResult> pendingResult) {
+		final TaskResult result;
+		try{
+			result = pendingResult.get();
+		}catch(final InterruptedException ie){
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(INTERRUPTED, ie);
+		}catch(final ExecutionException ee){
+			if(ee.getCause() instanceof Error){
+				throw (Error) ee.getCause();
+			}
+			throw new IllegalStateException(ee.getCause());
+		}
+		final int taskIndex = taskCount++;
+		if(result.exception != null){
+			failedTasks++;
+			KOSize++;
+			System.out.println(String.format(TASK_EXCEPTION, taskIndex, result.exception));
+		}else if(result.KOCount > 0){
+			failedTasks++;
+			KOSize += result.KOCount;
+			System.out.println(String.format(TASK_KO_HEADER, taskIndex, result.KOCount));
+			for (final String message : result.KOMessages) {
+				System.out.println(message);
+			}
+		}
+	}
+
+	/**
+	 * The sources of the tasks added at once : a single pair, or two Iterables read at the same pace.
+	 */
+	private static final class TaskSources {
+
+		private final Iterable<? extends Callable<?>> actualSources;
+		private final Iterable<? extends Callable<?>> expectedSources;
+
+		private TaskSources(final Iterable<? extends Callable<?>> actualSources, final Iterable<? extends Callable<?>> expectedSources){
+			this.actualSources = actualSources;
+			this.expectedSources = expectedSources;
+		}
+	}
+
+	/**
+	 * The outcome of one task : either its error messages and their number, or the error that prevented it from running.
+	 * The messages sent to a FailureStore by the plan are only counted.
+	 */
+	private static final class TaskResult {
+
+		private final List<String> KOMessages;
+		private final int KOCount;
+		private final Throwable exception;
+
+		private TaskResult(final List<String> KOMessages, final int KOCount, final Throwable exception){
+			this.KOMessages = KOMessages;
+			this.KOCount = KOCount;
+			this.exception = exception;
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package com.lma.utils;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EqualityCache memoizes the result of equals() between two objects, so that an expensive comparison between
+ * the same two instances runs only once, whatever the number of fields and of builders referencing them.
+ * The pairs are identified by the identity of both objects, and held with weak references :
+ * an entry disappears as soon as one of its objects is garbage collected.
+ * It must only be used with immutable types, as a cached result is never computed again.
+ * A cache can be shared by all the builders of a test class, from any thread.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code private static final EqualityCache CACHE = new EqualityCache(Address.class, Money.class);
+ * ...
+ * new MultiAssertBuilder(actual, expected)
+ * 	.setAssertEqualFields("billingAddress", "shippingAddress", "total")
+ * 	.setEqualityCache(CACHE)
+ * 	.runAssertions();
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class EqualityCache {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String NO_CACHED_TYPES = "'cachedTypes' parameter is null or empty in constructor : the immutable types to cache must be listed.";
+	private static final String CACHED_TYPE_IS_NULL = "'cachedTypes' parameter contains a null type in constructor.";
+
+	/**
+	 * The immutable types whose comparisons are cached.
+	 */
+	private final List<Class<?>> cachedTypes;
+
+	/**
+	 * Map storing the result of equals() for each pair of objects.
+	 */
+	private final Map<PairKey, Boolean> results = new HashMap<PairKey, Boolean>();
+
+	/**
+	 * Queue receiving the references whose object was garbage collected.
+	 */
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+	/**
+	 * Number of comparisons whose result was found in the cache.
+	 */
+	private long hitCount;
+
+	/**
+	 * Constructor for an EqualityCache.
+	 *
+	 * @param cachedTypes (Class<?>...) the immutable types whose comparisons are cached, including their sub-types.
+	 * At least one type must be specified : the values of the other types are always compared again, as they may have changed.
+	 */
+	public EqualityCache(final Class<?>... cachedTypes){
+		if((cachedTypes == null) || (cachedTypes.length == 0)){
+			throw new IllegalArgumentException(NO_CACHED_TYPES);
+		}
+		for (final Class<?> cachedType : cachedTypes) {
+			if(cachedType == null){
+				throw new IllegalArgumentException(CACHED_TYPE_IS_NULL);
+			}
+		}
+		this.cachedTypes = Arrays.asList(cachedTypes.clone());
+	}
+
+	/**
+	 * Retrieves the number of pairs of objects currently cached.
+	 */
+	public synchronized int size(){
+		expungeStaleEntries();
+		return results.size();
+	}
+
+	/**
+	 * Retrieves the number of comparisons whose result was found in the cache.
+	 */
+	public synchronized long getHitCount(){
+		return hitCount;
+	}
+
+	/**
+	 * Forgets all the cached results.
+	 */
+	public synchronized void clear(){
+		expungeStaleEntries();
+		results.clear();
+		hitCount = 0;
+	}
+
+	/**
+	 * Determines if the comparison of two values can use the cache.
+	 * Identical or null values, primitive wrappers, Strings and enums are cheap to compare and never cached.
+	 *
+	 * @param actualValue (Object) the value to test.
+	 * @param expectedValue (Object) the value to be tested against.
+	 * @return (boolean) true if the comparison can use the cache.
+	 */
+	boolean isCacheable(final Object actualValue, final Object expectedValue){
+		if((actualValue == null) || (expectedValue == null) || (actualValue == expectedValue)){
+			return false;
+		}
+		final Class<?> type = actualValue.getClass();
+		if((actualValue instanceof Number) || (actualValue instanceof Boolean) || (actualValue instanceof Character)
+				|| (actualValue instanceof String) || (actualValue instanceof Enum<?>)){
+			return false;
+		}
+		for (final Class<?> cachedType : cachedTypes) {
+			if(cachedType.isAssignableFrom(type)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compares two values with actualValue.equals(expectedValue), unless the result for this pair is already cached.
+	 *
+	 * @param actualValue (Object) the value to test, not null.
+	 * @param expectedValue (Object) the value to be tested against, not null.
+	 * @return (boolean) the result of equals().
+	 */
+	boolean areEqual(final Object actualValue, final Object expectedValue){
+		synchronized (this) {
+			expungeStaleEntries();
+			final Boolean result = results.get(new PairKey(actualValue, expectedValue, null));
+			if(result != null){
+				hitCount++;
+				return result.booleanValue();
+			}
+		}
+		final boolean equal = actualValue.equals(expectedValue);
+		synchronized (this) {
+			results.put(new PairKey(actualValue, expectedValue, queue), Boolean.valueOf(equal));
+		}
+		return equal;
+	}
+
+	/**
+	 * Removes the entries whose objects were garbage collected.
+	 */
+	private void expungeStaleEntries(){
+		PairReference reference = (PairReference) queue.poll();
+		while(reference != null){
+			results.remove(reference.key);
+			reference = (PairReference) queue.poll();
+		}
+	}
+
+	/**
+	 * Key of a pair of objects, compared by identity.
+	 * The keys stored in the map hold weak references, the keys used for lookups hold the objects themselves.
+	 */
+	private static final class PairKey {
+
+		private final Object first;
+		private final Object second;
+		private final PairReference firstReference;
+		private final PairReference secondReference;
+		private final int hash;
+
+		private PairKey(final Object first, final Object second, final ReferenceQueue<Object> queue){
+			hash = (31 * System.identityHashCode(first)) + System.identityHashCode(second);
+			if(queue == null){
+				this.first = first;
+				this.second = second;
+				firstReference = null;
+				secondReference = null;
+			}else{
+				this.first = null;
+				this.second = null;
+				firstReference = new PairReference(first, queue, this);
+				secondReference = new PairReference(second, queue, this);
+			}
+		}
+
+		private Object getFirst(){
+			return (firstReference == null) ? first : firstReference.get();
+		}
+
+		private Object getSecond(){
+			return (secondReference == null) ? second : secondReference.get();
+		}
+
+		@Override
+		public int hashCode(){
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object other){
+			if(this == other){
+				return true;
+			}
+			if(!(other instanceof PairKey)){
+				return false;
+			}
+			final PairKey otherKey = (PairKey) other;
+			final Object firstObject = getFirst();
+			final Object secondObject = getSecond();
+			return (firstObject != null) && (secondObject != null)
+					&& (firstObject == otherKey.getFirst()) && (secondObject == otherKey.getSecond());
+		}
+	}
+
+	/**
+	 * Weak reference remembering the key it belongs to, so the entry can be removed once the object is collected.
+	 */
+	private static final class PairReference extends WeakReference<Object> {
+
+		private final PairKey key;
+
+		private PairReference(final Object referent, final ReferenceQueue<Object> queue, final PairKey key){
+			super(referent, queue);
+			this.key = key;
+		}
+	}
+}
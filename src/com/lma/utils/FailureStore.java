@@ -0,0 +1,452 @@
+package com.lma.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+import com.lma.utils.MultiAssertBuilder.AssertionType;
+
+/**
+ * FailureStore keeps the errors of a run with a bounded memory, for the batch comparisons that can fail millions of times.
+ * Only the first errors are kept in memory as a sample, with the exact number of errors per field and assertion type.
+ * Every error is written to a compact append-only spill file, which can be read after the run with {@link Reader}
+ * or printed with : java com.lma.utils.FailureStore spillFile.
+ * A store can be shared by the builders of a run, from any thread, and must be closed at the end of the run.
+ * The errors are written under the lock of the store, through a large buffer : the threads sharing a store only wait for each other
+ * while the buffer is copied, or written to the disk once full. Runners producing errors faster than the disk can write them are slowed down to its speed.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code final FailureStore store = new FailureStore(new File("target/reconcile.ko"), 100);
+ * try{
+ * 	MultiAssertBuilder.reconcile(jobOutput, referenceOutput, "id")
+ * 		.applying(plan)
+ * 		.storingFailures(store)
+ * 		.runAssertions();
+ * }finally{
+ * 	store.close();
+ * 	System.out.print(store.getSummary());
+ * }
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class FailureStore implements Closeable {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String FILE_IS_NULL_PARAMETER = "'spillFile' parameter is null in constructor.";
+	private static final String NEGATIVE_SAMPLE_SIZE = "'sampleSize' parameter cannot be negative.";
+	private static final String STORE_CLOSED = "The failure store '%s' is closed.";
+	private static final String NOT_A_SPILL_FILE = "The file '%s' is not a failure spill file.";
+	private static final String CORRUPTED_FILE = "The failure spill file '%s' is corrupted : unknown record tag %d.";
+	private static final String UNKNOWN_ASSERTION_TYPE = "The failure spill file '%s' is corrupted : unknown assertion type %d.";
+	private static final String UNKNOWN_FIELD_ID = "The failure spill file '%s' is corrupted : unknown field id %d.";
+	private static final String INVALID_LENGTH = "The failure spill file '%s' is corrupted : invalid string length %d.";
+	private static final String TRUNCATED_RECORD = "The failure spill file '%s' is corrupted : its last record is truncated.";
+	private static final String IO_ERROR = "The failure spill file '%s' cannot be accessed.";
+	private static final String SUMMARY_TITLE = "=> MultiAssertBuilder failure store : %d error(s), the first %d below, all of them written to '%s'.";
+	private static final String SUMMARY_COUNTS = "=> Error(s) per field and assertion type :";
+	private static final String SUMMARY_COUNT = "	%s : %d";
+	private static final String COUNT_KEY = "%s %s";
+	private static final String NO_FIELD = "-";
+	private static final String NO_ASSERTION_TYPE = "OTHER";
+	private static final String USAGE = "Usage : java com.lma.utils.FailureStore spillFile";
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+	/**
+	 * Header of every spill file : "MAK1".
+	 */
+	private static final int MAGIC = 0x4D414B31;
+
+	/**
+	 * Tags of the records : a field name is written once with its id, then referenced by its id in each failure.
+	 */
+	private static final byte TAG_FIELD = 0;
+	private static final byte TAG_FAILURE = 1;
+
+	private static final int NO_ID = -1;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final AssertionType[] ASSERTION_TYPES = AssertionType.values();
+
+	private final File spillFile;
+	private final int sampleSize;
+	private final DataOutputStream out;
+	private final List<String> sample = new ArrayList<String>();
+	private final Map<String, Long> counts = new LinkedHashMap<String, Long>();
+	private final Map<String, Integer> fieldIds = new HashMap<String, Integer>();
+	private long count;
+	private boolean closed;
+
+	/**
+	 * Constructor for a FailureStore. The spill file is created, or emptied if it exists.
+	 *
+	 * @param spillFile (File) the file receiving all the errors
+	 * @param sampleSize (int) the number of errors kept in memory and printed at the end of the run
+	 * @throws IllegalStateException : if the spill file cannot be created.
+	 */
+	public FailureStore(final File spillFile, final int sampleSize){
+		if(spillFile == null){
+			throw new IllegalArgumentException(FILE_IS_NULL_PARAMETER);
+		}
+		if(sampleSize < 0){
+			throw new IllegalArgumentException(NEGATIVE_SAMPLE_SIZE);
+		}
+		this.spillFile = spillFile;
+		this.sampleSize = sampleSize;
+		try{
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile), BUFFER_SIZE));
+			out.writeInt(MAGIC);
+		}catch(final IOException ioe){
+			throw new IllegalStateException(String.format(IO_ERROR, spillFile.getPath()), ioe);
+		}
+	}
+
+	/**
+	 * Retrieves the number of errors stored.
+	 */
+	public synchronized long getCount(){
+		return count;
+	}
+
+	/**
+	 * Retrieves the number of errors stored for a field and an assertion type.
+	 *
+	 * @param fieldName (String) the name of the field, with the dot notation for sub-fields, or null for the errors of no field.
+	 * @param assertionType (AssertionType) the type of assertion, or null for the errors of no assertion type, like a missing record.
+	 * @return (long) the number of errors.
+	 */
+	public synchronized long getCount(final String fieldName, final AssertionType assertionType){
+		final Long fieldCount = counts.get(buildCountKey(fieldName, assertionType));
+		return (fieldCount == null) ? 0 : fieldCount.longValue();
+	}
+
+	/**
+	 * Retrieves the errors kept in memory : the first ones, up to the sample size.
+	 */
+	public synchronized List<String> getSample(){
+		return Collections.unmodifiableList(new ArrayList<String>(sample));
+	}
+
+	/**
+	 * Retrieves the file receiving all the errors.
+	 */
+	public File getSpillFile(){
+		return spillFile;
+	}
+
+	/**
+	 * Builds the summary of the stored errors : the sample and the number of errors per field and assertion type.
+	 *
+	 * @return (String) the summary.
+	 */
+	public synchronized String getSummary(){
+		final StringBuilder summary = new StringBuilder();
+		summary.append(String.format(SUMMARY_TITLE, count, sample.size(), spillFile.getPath())).append(LINE_SEPARATOR);
+		for (final String message : sample) {
+			summary.append(message).append(LINE_SEPARATOR);
+		}
+		summary.append(SUMMARY_COUNTS).append(LINE_SEPARATOR);
+		for (final Entry<String, Long> fieldCount : counts.entrySet()) {
+			summary.append(String.format(SUMMARY_COUNT, fieldCount.getKey(), fieldCount.getValue())).append(LINE_SEPARATOR);
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Writes the buffered errors to the spill file, so it can be read while the store is still open.
+	 */
+	public synchronized void flush(){
+		if(closed){
+			return;
+		}
+		try{
+			out.flush();
+		}catch(final IOException ioe){
+			throw new IllegalStateException(String.format(IO_ERROR, spillFile.getPath()), ioe);
+		}
+	}
+
+	/**
+	 * Writes the buffered errors and closes the spill file. The counts and the sample stay available.
+	 */
+	public synchronized void close(){
+		if(closed){
+			return;
+		}
+		closed = true;
+		try{
+			out.close();
+		}catch(final IOException ioe){
+			throw new IllegalStateException(String.format(IO_ERROR, spillFile.getPath()), ioe);
+		}
+	}
+
+	/**
+	 * Stores an error : counts it, keeps it in memory if the sample is not full, and writes it to the spill file.
+	 * The message is encoded before the lock of the store is taken.
+	 *
+	 * @param fieldName (String) the name of the field, or null.
+	 * @param assertionType (AssertionType) the type of assertion, or null.
+	 * @param message (String) the log of the error.
+	 * @throws IllegalStateException : if the store is closed or if the spill file cannot be written.
+	 */
+	void add(final String fieldName, final AssertionType assertionType, final String message){
+		final byte[] messageBytes = message.getBytes(UTF_8);
+		final String countKey = buildCountKey(fieldName, assertionType);
+		synchronized (this) {
+			add(fieldName, assertionType, message, messageBytes, countKey);
+		}
+	}
+
+	/**
+	 * Stores an encoded error, under the lock of the store.
+	 */
+	private void add(final String fieldName, final AssertionType assertionType, final String message, final byte[] messageBytes, final String countKey){
+		if(closed){
+			throw new IllegalStateException(String.format(STORE_CLOSED, spillFile.getPath()));
+		}
+		count++;
+		final Long fieldCount = counts.get(countKey);
+		counts.put(countKey, Long.valueOf((fieldCount == null) ? 1 : fieldCount.longValue() + 1));
+		if(sample.size() < sampleSize){
+			sample.add(message);
+		}
+		try{
+			final int fieldId = writeFieldId(fieldName);
+			out.writeByte(TAG_FAILURE);
+			out.writeInt(fieldId);
+			out.writeByte((assertionType == null) ? NO_ID : assertionType.ordinal());
+			out.writeInt(messageBytes.length);
+			out.write(messageBytes);
+		}catch(final IOException ioe){
+			throw new IllegalStateException(String.format(IO_ERROR, spillFile.getPath()), ioe);
+		}
+	}
+
+	/**
+	 * Retrieves the id of a field name, writing its definition on its first use.
+	 */
+	private int writeFieldId(final String fieldName) throws IOException {
+		if(fieldName == null){
+			return NO_ID;
+		}
+		Integer fieldId = fieldIds.get(fieldName);
+		if(fieldId == null){
+			fieldId = Integer.valueOf(fieldIds.size());
+			fieldIds.put(fieldName, fieldId);
+			out.writeByte(TAG_FIELD);
+			out.writeInt(fieldId.intValue());
+			writeString(out, fieldName);
+		}
+		return fieldId.intValue();
+	}
+
+	/**
+	 * Builds the key of the count of a field and an assertion type, like so : fieldName + ' ' + assertionType.
+	 */
+	private static String buildCountKey(final String fieldName, final AssertionType assertionType){
+		return String.format(COUNT_KEY, (fieldName == null) ? NO_FIELD : fieldName, (assertionType == null) ? NO_ASSERTION_TYPE : assertionType.name());
+	}
+
+	private static void writeString(final DataOutputStream out, final String value) throws IOException {
+		final byte[] bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Opens a spill file to read its errors, in the order they were stored.
+	 *
+	 * @param spillFile (File) the spill file.
+	 * @return (Reader) the reader, to be closed by the caller.
+	 * @throws IllegalStateException : if the file cannot be read or is not a spill file.
+	 */
+	public static Reader read(final File spillFile){
+		return new Reader(spillFile);
+	}
+
+	/**
+	 * Prints all the errors of a spill file.
+	 *
+	 * @param args (String[]) the path of the spill file.
+	 */
+	public static void main(final String[] args){
+		if(args.length != 1){
+			System.out.println(USAGE);
+			return;
+		}
+		final Reader reader = read(new File(args[0]));
+		try{
+			while(reader.hasNext()){
+				System.out.println(reader.next().getMessage());
+			}
+		}finally{
+			reader.close();
+		}
+	}
+
+	/**
+	 * One error read from a spill file.
+	 */
+	public static final class Failure {
+
+		private final String fieldName;
+		private final AssertionType assertionType;
+		private final String message;
+
+		private Failure(final String fieldName, final AssertionType assertionType, final String message){
+			this.fieldName = fieldName;
+			this.assertionType = assertionType;
+			this.message = message;
+		}
+
+		/**
+		 * Retrieves the name of the field, or null for the errors of no field.
+		 */
+		public String getFieldName(){
+			return fieldName;
+		}
+
+		/**
+		 * Retrieves the type of assertion, or null for the errors of no assertion type.
+		 */
+		public AssertionType getAssertionType(){
+			return assertionType;
+		}
+
+		/**
+		 * Retrieves the log of the error.
+		 */
+		public String getMessage(){
+			return message;
+		}
+	}
+
+	/**
+	 * Reader streaming the errors of a spill file, without loading the whole file.
+	 */
+	public static final class Reader implements Closeable {
+
+		private final File spillFile;
+		private final DataInputStream in;
+		private final Map<Integer, String> fieldNames = new HashMap<Integer, String>();
+		private Failure next;
+
+		private Reader(final File spillFile){
+			this.spillFile = spillFile;
+			try{
+				in = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile)));
+				if(in.readInt() != MAGIC){
+					in.close();
+					throw new IllegalStateException(String.format(NOT_A_SPILL_FILE, spillFile.getPath()));
+				}
+			}catch(final EOFException eofe){
+				throw new IllegalStateException(String.format(NOT_A_SPILL_FILE, spillFile.getPath()), eofe);
+			}catch(final IOException ioe){
+				throw new IllegalStateException(String.format(IO_ERROR, spillFile.getPath()), ioe);
+			}
+		}
+
+		/**
+		 * Determines if the file contains another error.
+		 */
+		public boolean hasNext(){
+			if(next == null){
+				next = readFailure();
+			}
+			return next != null;
+		}
+
+		/**
+		 * Reads the next error of the file.
+		 *
+		 * @throws NoSuchElementException : if the file contains no more errors.
+		 */
+		public Failure next(){
+			if(!hasNext()){
+				throw new NoSuchElementException();
+			}
+			final Failure failure = next;
+			next = null;
+			return failure;
+		}
+
+		public void close(){
+			try{
+				in.close();
+			}catch(final IOException ioe){
+				throw new IllegalStateException(String.format(IO_ERROR, spillFile.getPath()), ioe);
+			}
+		}
+
+		/**
+		 * Reads the records up to the next error, or returns null at the end of the file.
+		 *
+		 * @throws IllegalStateException : if a record is corrupted or truncated, or if the file cannot be read.
+		 */
+		private Failure readFailure(){
+			try{
+				while(true){
+					final int tag = in.read();
+					if(tag < 0){
+						return null;
+					}
+					if(tag == TAG_FIELD){
+						final int fieldId = in.readInt();
+						fieldNames.put(Integer.valueOf(fieldId), readString());
+					}else if(tag == TAG_FAILURE){
+						final int fieldId = in.readInt();
+						final byte typeOrdinal = in.readByte();
+						final String message = readString();
+						final String fieldName = fieldNames.get(Integer.valueOf(fieldId));
+						if((fieldName == null) && (fieldId != NO_ID)){
+							throw new IllegalStateException(String.format(UNKNOWN_FIELD_ID, spillFile.getPath(), fieldId));
+						}
+						if((typeOrdinal < NO_ID) || (typeOrdinal >= ASSERTION_TYPES.length)){
+							throw new IllegalStateException(String.format(UNKNOWN_ASSERTION_TYPE, spillFile.getPath(), typeOrdinal));
+						}
+						return new Failure(fieldName, (typeOrdinal == NO_ID) ? null : ASSERTION_TYPES[typeOrdinal], message);
+					}else{
+						throw new IllegalStateException(String.format(CORRUPTED_FILE, spillFile.getPath(), tag));
+					}
+				}
+			}catch(final EOFException eofe){
+				throw new IllegalStateException(String.format(TRUNCATED_RECORD, spillFile.getPath()), eofe);
+			}catch(final IOException ioe){
+				throw new IllegalStateException(String.format(IO_ERROR, spillFile.getPath()), ioe);
+			}
+		}
+
+		/**
+		 * Reads a String written as its UTF-8 length followed by its UTF-8 bytes.
+		 */
+		private String readString() throws IOException {
+			final int length = in.readInt();
+			if(length < 0){
+				throw new IllegalStateException(String.format(INVALID_LENGTH, spillFile.getPath(), length));
+			}
+			final byte[] bytes = new byte[length];
+			in.readFully(bytes);
+			return new String(bytes, UTF_8);
+		}
+	}
+}
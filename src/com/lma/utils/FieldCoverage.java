@@ -0,0 +1,224 @@
+package com.lma.utils;
+
+import java.lang.reflect.Field;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.lma.utils.MultiAssertBuilder.AssertionType;
+
+/**
+ * FieldCoverage tracks, for the whole test suite, how many times each field of the examined classes was checked
+ * by the builders, and by which type of assertion, to find the fields that no test asserts.
+ * All the fields of the examined classes and of the classes reached through sub-fields are listed, even if never checked.
+ * The tracking is off by default. It is turned on with {@link #enable()} or with the system property
+ * {@value #ENABLED_PROPERTY}=true, and the report is then printed when the JVM shuts down.
+ * The counters are striped per thread, so parallel tests do not contend on them.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code @BeforeClass
+ * public static void trackCoverage(){
+ * 	FieldCoverage.enable();
+ * }
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public final class FieldCoverage {
+
+	/**
+	 * System property turning the tracking on at startup.
+	 */
+	public static final String ENABLED_PROPERTY = "multiassertbuilder.coverage";
+
+	/**
+	 * Message constants.
+	 */
+	private static final String REPORT_TITLE = "=> MultiAssertBuilder field coverage : %d of %d field(s) asserted.";
+	private static final String REPORT_FIELD = "	%s :%s";
+	private static final String REPORT_COUNT = " %s=%d";
+	private static final String NEVER_ASSERTED = " NEVER ASSERTED";
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+	private static final AssertionType[] ASSERTION_TYPES = AssertionType.values();
+
+	/**
+	 * Orders the fields of a class by name in the report.
+	 */
+	private static final Comparator<Field> FIELD_NAME_ORDER = new Comparator<Field>(){
+		public int compare(final Field first, final Field second){
+			return first.getName().compareTo(second.getName());
+		}
+	};
+
+	/**
+	 * Activates the tracking.
+	 */
+	private static volatile boolean enabled;
+
+	/**
+	 * True once the report is scheduled to be printed at shutdown.
+	 */
+	private static boolean shutdownHookAdded;
+
+	/**
+	 * Map storing the fields of each examined class.
+	 */
+	private static final ConcurrentMap<Class<?>, List<Field>> KNOWN_FIELDS = new ConcurrentHashMap<Class<?>, List<Field>>();
+
+	/**
+	 * Map storing the counters of each checked field, one count per assertion type.
+	 */
+	private static final ConcurrentMap<Field, StripedCounter> COUNTERS = new ConcurrentHashMap<Field, StripedCounter>();
+
+	static{
+		if(Boolean.getBoolean(ENABLED_PROPERTY)){
+			enable();
+		}
+	}
+
+	private FieldCoverage(){
+	}
+
+	/**
+	 * Turns the tracking on, and prints the report when the JVM shuts down if the tracking is still on.
+	 */
+	public static synchronized void enable(){
+		enabled = true;
+		if(!shutdownHookAdded){
+			Runtime.getRuntime().addShutdownHook(new Thread("MultiAssertBuilder-coverage"){
+				@Override
+				public void run(){
+					if(enabled){
+						System.out.println(getReport());
+					}
+				}
+			});
+			shutdownHookAdded = true;
+		}
+	}
+
+	/**
+	 * Turns the tracking off. The counts are kept.
+	 */
+	public static void disable(){
+		enabled = false;
+	}
+
+	/**
+	 * Determines if the tracking is on.
+	 */
+	public static boolean isEnabled(){
+		return enabled;
+	}
+
+	/**
+	 * Forgets all the fields and counts tracked so far.
+	 */
+	public static void reset(){
+		KNOWN_FIELDS.clear();
+		COUNTERS.clear();
+	}
+
+	/**
+	 * Retrieves the number of times a field was checked by a type of assertion.
+	 *
+	 * @param type (Class<?>) the class declaring the field.
+	 * @param fieldName (String) the name of the field.
+	 * @param assertionType (AssertionType) the type of assertion.
+	 * @return (long) the number of checks.
+	 */
+	public static long getCount(final Class<?> type, final String fieldName, final AssertionType assertionType){
+		for (final Map.Entry<Field, StripedCounter> counter : COUNTERS.entrySet()) {
+			final Field field = counter.getKey();
+			if(field.getDeclaringClass().equals(type) && field.getName().equals(fieldName)){
+				return counter.getValue().sum(assertionType.ordinal());
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Builds the report of all the tracked fields, grouped by declaring class.
+	 *
+	 * @return (String) the report.
+	 */
+	public static String getReport(){
+		final Map<String, Set<Field>> fieldsByClass = new TreeMap<String, Set<Field>>();
+		for (final List<Field> fields : KNOWN_FIELDS.values()) {
+			for (final Field field : fields) {
+				addField(fieldsByClass, field);
+			}
+		}
+		for (final Field field : COUNTERS.keySet()) {
+			addField(fieldsByClass, field);
+		}
+		int fieldCount = 0;
+		int assertedCount = 0;
+		final StringBuilder details = new StringBuilder();
+		for (final Map.Entry<String, Set<Field>> classFields : fieldsByClass.entrySet()) {
+			details.append(classFields.getKey()).append(LINE_SEPARATOR);
+			for (final Field field : classFields.getValue()) {
+				final StringBuilder counts = new StringBuilder();
+				final StripedCounter counter = COUNTERS.get(field);
+				fieldCount++;
+				if((counter == null) || (counter.sum() == 0)){
+					counts.append(NEVER_ASSERTED);
+				}else{
+					assertedCount++;
+					for (final AssertionType assertionType : ASSERTION_TYPES) {
+						counts.append(String.format(REPORT_COUNT, assertionType.name(), counter.sum(assertionType.ordinal())));
+					}
+				}
+				details.append(String.format(REPORT_FIELD, field.getName(), counts)).append(LINE_SEPARATOR);
+			}
+		}
+		return String.format(REPORT_TITLE, assertedCount, fieldCount) + LINE_SEPARATOR + details;
+	}
+
+	/**
+	 * Registers the fields of an examined class, so they appear in the report even if never checked.
+	 */
+	static void registerFields(final Class<?> type, final List<Field> fields){
+		if(!KNOWN_FIELDS.containsKey(type)){
+			KNOWN_FIELDS.putIfAbsent(type, fields);
+		}
+	}
+
+	/**
+	 * Counts one check of a field by a type of assertion. Unknown fields, null, are ignored.
+	 */
+	static void countCheck(final Field field, final AssertionType assertionType){
+		if(field == null){
+			return;
+		}
+		StripedCounter counter = COUNTERS.get(field);
+		if(counter == null){
+			final StripedCounter newCounter = new StripedCounter(ASSERTION_TYPES.length);
+			counter = COUNTERS.putIfAbsent(field, newCounter);
+			if(counter == null){
+				counter = newCounter;
+			}
+		}
+		counter.increment(assertionType.ordinal());
+	}
+
+	/**
+	 * Adds a field to the fields of its declaring class, sorted by name.
+	 */
+	private static void addField(final Map<String, Set<Field>> fieldsByClass, final Field field){
+		final String className = field.getDeclaringClass().getName();
+		Set<Field> fields = fieldsByClass.get(className);
+		if(fields == null){
+			fields = new TreeSet<Field>(FIELD_NAME_ORDER);
+			fieldsByClass.put(className, fields);
+		}
+		fields.add(field);
+	}
+}
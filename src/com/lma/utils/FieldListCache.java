@@ -0,0 +1,112 @@
+package com.lma.utils;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * FieldListCache keeps the fields resolved for each class, so that they are fetched only once per class for all the builders.
+ * It must not keep the classes alive : in an application server, a class which stays reachable keeps its whole class loader alive.
+ * The classes are held with weak references, and their fields with soft references, as a Field references its declaring class :
+ * the entries of the classes which are no longer used are dropped by the garbage collector.
+ */
+final class FieldListCache {
+
+	/**
+	 * Map storing the fields of each class.
+	 */
+	private final ConcurrentMap<TypeKey, SoftReference<List<Field>>> fieldLists = new ConcurrentHashMap<TypeKey, SoftReference<List<Field>>>();
+
+	/**
+	 * Queue receiving the references whose class was garbage collected.
+	 */
+	private final ReferenceQueue<Class<?>> queue = new ReferenceQueue<Class<?>>();
+
+	/**
+	 * Retrieves the fields cached for a class.
+	 *
+	 * @param type (Class<?>) the class.
+	 * @return (List<Field>) the fields of the class, or null if they are not cached.
+	 */
+	List<Field> get(final Class<?> type){
+		final SoftReference<List<Field>> reference = fieldLists.get(new TypeKey(type, null));
+		return (reference != null) ? reference.get() : null;
+	}
+
+	/**
+	 * Caches the fields of a class, unless another thread cached them first.
+	 *
+	 * @param type (Class<?>) the class.
+	 * @param fieldList (List<Field>) the fields of the class, unmodifiable.
+	 * @return (List<Field>) the fields cached for the class : fieldList, or the fields cached by another thread.
+	 */
+	List<Field> putIfAbsent(final Class<?> type, final List<Field> fieldList){
+		expungeStaleEntries();
+		final TypeKey key = new TypeKey(type, queue);
+		final SoftReference<List<Field>> newReference = new SoftReference<List<Field>>(fieldList);
+		SoftReference<List<Field>> reference = fieldLists.putIfAbsent(key, newReference);
+		while(reference != null){
+			final List<Field> cachedFieldList = reference.get();
+			if(cachedFieldList != null){
+				return cachedFieldList;
+			}
+			if(fieldLists.replace(key, reference, newReference)){
+				return fieldList;
+			}
+			reference = fieldLists.putIfAbsent(key, newReference);
+		}
+		return fieldList;
+	}
+
+	/**
+	 * Removes the entries whose class was garbage collected.
+	 */
+	private void expungeStaleEntries(){
+		TypeKey key = (TypeKey) queue.poll();
+		while(key != null){
+			fieldLists.remove(key);
+			key = (TypeKey) queue.poll();
+		}
+	}
+
+	/**
+	 * Key of a class, compared by identity.
+	 * The keys stored in the map hold a weak reference, the keys used for lookups hold the class itself.
+	 */
+	private static final class TypeKey extends WeakReference<Class<?>> {
+
+		private final Class<?> type;
+		private final int hash;
+
+		private TypeKey(final Class<?> type, final ReferenceQueue<Class<?>> queue){
+			super(type, queue);
+			this.hash = System.identityHashCode(type);
+			this.type = (queue == null) ? type : null;
+		}
+
+		private Class<?> getType(){
+			return (type != null) ? type : get();
+		}
+
+		@Override
+		public int hashCode(){
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object other){
+			if(this == other){
+				return true;
+			}
+			if(!(other instanceof TypeKey)){
+				return false;
+			}
+			final Class<?> thisType = getType();
+			return (thisType != null) && (thisType == ((TypeKey) other).getType());
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.lma.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FieldSnapshot records the values last checked for each field by a MultiAssertBuilder, and the result of each assertion.
+ * When the same snapshot is given to the next builders, the fields whose values did not change are not checked again :
+ * their previous result is reused. Asserting an object after each of the many steps of a simulation then only costs
+ * the fields that changed at each step.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code final FieldSnapshot snapshot = new FieldSnapshot();
+ * for (final Step step : steps) {
+ * 	machine.apply(step);
+ * 	new MultiAssertBuilder(machine, model.apply(step))
+ * 		.setAssertEqualFields("state", "counter", "history")
+ * 		.setSnapshot(snapshot)
+ * 		.runAssertions();
+ * }
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class FieldSnapshot {
+
+	/**
+	 * Map storing the last result for each assertion type and field name.
+	 */
+	private final Map<String, Result> results = new HashMap<String, Result>();
+
+	/**
+	 * Number of assertions whose result was reused.
+	 */
+	private long reusedCount;
+
+	/**
+	 * Number of assertions that were checked again.
+	 */
+	private long checkedCount;
+
+	/**
+	 * Retrieves the number of assertions whose previous result was reused because their values did not change.
+	 */
+	public synchronized long getReusedCount(){
+		return reusedCount;
+	}
+
+	/**
+	 * Retrieves the number of assertions that were checked because they were new or their values changed.
+	 */
+	public synchronized long getCheckedCount(){
+		return checkedCount;
+	}
+
+	/**
+	 * Forgets all the recorded values, so the next run checks every field again.
+	 */
+	public synchronized void clear(){
+		results.clear();
+		reusedCount = 0;
+		checkedCount = 0;
+	}
+
+	/**
+	 * Retrieves the last result recorded for a field and an assertion type, if its values did not change since then.
+	 *
+	 * @param assertionType (String) the name of the assertion type.
+	 * @param fieldName (String) the name of the field, with the dot notation for sub-fields.
+	 * @param actualValue (Object) the value to test.
+	 * @param expectedValue (Object) the value to be tested against.
+	 * @return (Result) the last result, or null if this field was never checked or if one of its values changed.
+	 */
+	synchronized Result findUnchangedResult(final String assertionType, final String fieldName, final Object actualValue, final Object expectedValue){
+		final Result result = results.get(buildKey(assertionType, fieldName));
+		if((result!=null) && result.isUnchanged(actualValue, expectedValue)){
+			reusedCount++;
+			return result;
+		}
+		return null;
+	}
+
+	/**
+	 * Records the result of a field that was checked.
+	 *
+	 * @param assertionType (String) the name of the assertion type.
+	 * @param fieldName (String) the name of the field, with the dot notation for sub-fields.
+	 * @param result (Result) the values checked and the result of the assertion.
+	 */
+	synchronized void putResult(final String assertionType, final String fieldName, final Result result){
+		results.put(buildKey(assertionType, fieldName), result);
+		checkedCount++;
+	}
+
+	/**
+	 * Builds a key like so : assertionType + ':' + fieldName.
+	 */
+	private static String buildKey(final String assertionType, final String fieldName){
+		final StringBuilder builder = new StringBuilder();
+		builder.append(assertionType);
+		builder.append(':');
+		builder.append(fieldName);
+		return builder.toString();
+	}
+
+	/**
+	 * Determines if a value did not change : references must be identical, primitive wrappers must hold the same value.
+	 */
+	static boolean isSameValue(final Object previous, final Object current){
+		if(previous == current){
+			return true;
+		}
+		if((previous == null) || (current == null) || !previous.getClass().equals(current.getClass())){
+			return false;
+		}
+		return isPrimitiveWrapper(previous) && previous.equals(current);
+	}
+
+	/**
+	 * Determines if a value is the boxed value of a primitive field. Their equals() compares the primitive bits.
+	 */
+	private static boolean isPrimitiveWrapper(final Object value){
+		return (value instanceof Integer) || (value instanceof Long) || (value instanceof Double) || (value instanceof Float)
+				|| (value instanceof Short) || (value instanceof Byte) || (value instanceof Character) || (value instanceof Boolean);
+	}
+
+	/**
+	 * The values checked for a field and the result of the assertion.
+	 */
+	static final class Result {
+
+		private final Object actualValue;
+		private final Object expectedValue;
+		private final boolean passed;
+
+		Result(final Object actualValue, final Object expectedValue, final boolean passed){
+			this.actualValue = actualValue;
+			this.expectedValue = expectedValue;
+			this.passed = passed;
+		}
+
+		/**
+		 * Determines if the values to check are the same as the recorded ones.
+		 */
+		private boolean isUnchanged(final Object actualValue, final Object expectedValue){
+			return isSameValue(this.actualValue, actualValue) && isSameValue(this.expectedValue, expectedValue);
+		}
+
+		boolean isPassed(){
+			return passed;
+		}
+	}
+}
@@ -0,0 +1,369 @@
+package com.lma.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GoldenFile stores the values of the asserted fields of objects in a compact binary file, indexed by a test key,
+ * so that later runs can be compared against them instead of against a hand-built 'expected' Object.
+ * The file is memory-mapped : opening it only reads the keys to build the index, and the values of a key are decoded
+ * straight from the mapping when they are asserted.
+ * Only primitive, String and enum values can be recorded : nested objects are recorded through their sub-fields.
+ * Recording a key again appends a new record which replaces the previous one.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code final GoldenFile goldenFile = new GoldenFile(new File("src/test/resources/humans.golden"));
+ * goldenFile.record("bob", bob, "surname", "age", "dog.name");
+ * new MultiAssertBuilder(bob, null)
+ * 	.setAssertGoldenValues(goldenFile, "bob")
+ * 	.runAssertions();
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class GoldenFile {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String FILE_IS_NULL_PARAMETER = "'file' parameter is null in constructor.";
+	private static final String KEY_IS_NULL_OR_EMPTY = "The golden key is null or empty.";
+	private static final String NO_RECORD_FOR_KEY = "No golden values were recorded for the key '%s' in the file '%s'.";
+	private static final String UNSUPPORTED_VALUE_TYPE = "The value of the field '%s' cannot be recorded in a golden file : the type '%s' is not supported. Record its sub-fields instead.";
+	private static final String NOT_A_GOLDEN_FILE = "The file '%s' is not a golden file.";
+	private static final String CORRUPTED_FILE = "The golden file '%s' is corrupted : unknown value tag %d.";
+	private static final String TRUNCATED_RECORD = "The golden file '%s' is corrupted : the record at offset %d is truncated.";
+	private static final String UNKNOWN_ENUM_TYPE = "The enum type '%s' recorded in the golden file cannot be found.";
+	private static final String IO_ERROR = "The golden file '%s' cannot be accessed.";
+
+	/**
+	 * Header of every golden file : "MAB1".
+	 */
+	private static final int MAGIC = 0x4D414231;
+
+	/**
+	 * Tags of the recorded value types.
+	 */
+	private static final byte TAG_NULL = 0;
+	private static final byte TAG_BOOLEAN = 1;
+	private static final byte TAG_BYTE = 2;
+	private static final byte TAG_SHORT = 3;
+	private static final byte TAG_CHAR = 4;
+	private static final byte TAG_INT = 5;
+	private static final byte TAG_LONG = 6;
+	private static final byte TAG_FLOAT = 7;
+	private static final byte TAG_DOUBLE = 8;
+	private static final byte TAG_STRING = 9;
+	private static final byte TAG_ENUM = 10;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/**
+	 * The golden file.
+	 */
+	private final File file;
+
+	/**
+	 * The read-only mapping of the file. Null while the file does not exist.
+	 * The records appended since the file was mapped are beyond its limit : the file is mapped again when one of them is read.
+	 */
+	private MappedByteBuffer mapping;
+
+	/**
+	 * Map storing the position of the fields of the last record of each key in the file.
+	 */
+	private final Map<String, Integer> index = new HashMap<String, Integer>();
+
+	/**
+	 * Constructor for a GoldenFile. The file is mapped if it exists, and created on the first record otherwise.
+	 *
+	 * @param file (File) the golden file
+	 * @throws IllegalStateException : if the file cannot be read or is not a golden file.
+	 */
+	public GoldenFile(final File file){
+		if(file == null){
+			throw new IllegalArgumentException(FILE_IS_NULL_PARAMETER);
+		}
+		this.file = file;
+		if(file.exists()){
+			load();
+		}
+	}
+
+	/**
+	 * Determines if values were recorded for a key.
+	 *
+	 * @param key (String) the key of the record.
+	 * @return (boolean) true if a record exists for this key.
+	 */
+	public synchronized boolean contains(final String key){
+		return index.containsKey(key);
+	}
+
+	/**
+	 * Records the values of some fields of an object under a key, and appends them to the file.
+	 * Only the new record is indexed : the file is neither read nor mapped again.
+	 *
+	 * @param key (String) the key of the record, usually the name of the test.
+	 * @param actual (Object) the Object whose values to record.
+	 * @param fieldNames (String...) the names of the fields to record, with the dot notation for sub-fields.
+	 * @return this instance of GoldenFile
+	 * @throws IllegalArgumentException : if a field does not exist or if its value type is not supported.
+	 */
+	public synchronized GoldenFile record(final String key, final Object actual, final String... fieldNames){
+		checkKey(key);
+		final MultiAssertBuilder reader = new MultiAssertBuilder(actual, null);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final long recordStart;
+		final int keyLength;
+		try{
+			final DataOutputStream out = new DataOutputStream(bytes);
+			writeString(out, key);
+			keyLength = out.size();
+			out.writeShort(fieldNames.length);
+			for (final String fieldName : fieldNames) {
+				writeString(out, fieldName);
+				writeValue(out, fieldName, reader.getFieldValue(fieldName));
+			}
+			out.flush();
+			recordStart = append(bytes.toByteArray());
+		}catch(final IOException ioe){
+			throw new IllegalStateException(String.format(IO_ERROR, file.getPath()), ioe);
+		}
+		index.put(key, Integer.valueOf((int) (recordStart + keyLength)));
+		return this;
+	}
+
+	/**
+	 * Retrieves the values recorded for a key, decoded from the mapping of the file.
+	 *
+	 * @param key (String) the key of the record.
+	 * @return (Map<String, Object>) the recorded values by field name, in the order they were recorded.
+	 * @throws IllegalArgumentException : if nothing was recorded for the key.
+	 */
+	public synchronized Map<String, Object> getValues(final String key){
+		checkKey(key);
+		final Integer position = index.get(key);
+		if(position == null){
+			throw new IllegalArgumentException(String.format(NO_RECORD_FOR_KEY, key, file.getPath()));
+		}
+		if((mapping == null) || (position.intValue() >= mapping.limit())){
+			map();
+		}
+		final ByteBuffer buffer = mapping.duplicate();
+		buffer.position(position.intValue());
+		final int fieldCount = buffer.getShort() & 0xFFFF;
+		final Map<String, Object> values = new LinkedHashMap<String, Object>();
+		for (int i = 0; i < fieldCount; i++) {
+			final String fieldName = readString(buffer);
+			values.put(fieldName, readValue(buffer));
+		}
+		return values;
+	}
+
+	/**
+	 * Maps the file and indexes its records by key. Only the keys are decoded.
+	 *
+	 * @throws IllegalStateException : if the file is not a golden file, or if a record is truncated.
+	 */
+	private void load() {
+		map();
+		index.clear();
+		if(mapping.limit() == 0){
+			return;
+		}
+		if((mapping.limit() < 4) || (mapping.getInt(0) != MAGIC)){
+			throw new IllegalStateException(String.format(NOT_A_GOLDEN_FILE, file.getPath()));
+		}
+		final ByteBuffer buffer = mapping.duplicate();
+		buffer.position(4);
+		while(buffer.hasRemaining()){
+			final int recordStart = buffer.position();
+			if(buffer.remaining() < 4){
+				throw new IllegalStateException(String.format(TRUNCATED_RECORD, file.getPath(), recordStart));
+			}
+			final int recordLength = buffer.getInt();
+			if((recordLength < 6) || (recordLength > buffer.remaining())){
+				throw new IllegalStateException(String.format(TRUNCATED_RECORD, file.getPath(), recordStart));
+			}
+			final int recordEnd = buffer.position() + recordLength;
+			final int keyLength = buffer.getInt(buffer.position());
+			if((keyLength < 0) || (keyLength > (recordLength - 6))){
+				throw new IllegalStateException(String.format(TRUNCATED_RECORD, file.getPath(), recordStart));
+			}
+			final String key = readString(buffer);
+			index.put(key, Integer.valueOf(buffer.position()));
+			buffer.position(recordEnd);
+		}
+	}
+
+	/**
+	 * Maps the whole file, including the records appended since the last mapping.
+	 */
+	private void map() {
+		try{
+			final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+			try{
+				final FileChannel channel = randomAccessFile.getChannel();
+				mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}finally{
+				randomAccessFile.close();
+			}
+		}catch(final IOException ioe){
+			throw new IllegalStateException(String.format(IO_ERROR, file.getPath()), ioe);
+		}
+	}
+
+	/**
+	 * Appends a record to the file, writing the header first if the file is new.
+	 *
+	 * @return (long) the offset of the record in the file, after its length.
+	 */
+	private long append(final byte[] record) throws IOException {
+		final long fileLength = file.exists() ? file.length() : 0;
+		final boolean newFile = (fileLength == 0);
+		final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+		try{
+			if(newFile){
+				out.writeInt(MAGIC);
+			}
+			out.writeInt(record.length);
+			out.write(record);
+		}finally{
+			out.close();
+		}
+		return fileLength + (newFile ? 8 : 4);
+	}
+
+	/**
+	 * Writes a value preceded by its type tag.
+	 */
+	private void writeValue(final DataOutputStream out, final String fieldName, final Object value) throws IOException {
+		if(value == null){
+			out.writeByte(TAG_NULL);
+		}else if(value instanceof Boolean){
+			out.writeByte(TAG_BOOLEAN);
+			out.writeBoolean(((Boolean) value).booleanValue());
+		}else if(value instanceof Byte){
+			out.writeByte(TAG_BYTE);
+			out.writeByte(((Byte) value).byteValue());
+		}else if(value instanceof Short){
+			out.writeByte(TAG_SHORT);
+			out.writeShort(((Short) value).shortValue());
+		}else if(value instanceof Character){
+			out.writeByte(TAG_CHAR);
+			out.writeChar(((Character) value).charValue());
+		}else if(value instanceof Integer){
+			out.writeByte(TAG_INT);
+			out.writeInt(((Integer) value).intValue());
+		}else if(value instanceof Long){
+			out.writeByte(TAG_LONG);
+			out.writeLong(((Long) value).longValue());
+		}else if(value instanceof Float){
+			out.writeByte(TAG_FLOAT);
+			out.writeFloat(((Float) value).floatValue());
+		}else if(value instanceof Double){
+			out.writeByte(TAG_DOUBLE);
+			out.writeDouble(((Double) value).doubleValue());
+		}else if(value instanceof String){
+			out.writeByte(TAG_STRING);
+			writeString(out, (String) value);
+		}else if(value instanceof Enum<?>){
+			out.writeByte(TAG_ENUM);
+			writeString(out, ((Enum<?>) value).getDeclaringClass().getName());
+			writeString(out, ((Enum<?>) value).name());
+		}else{
+			throw new IllegalArgumentException(String.format(UNSUPPORTED_VALUE_TYPE, fieldName, value.getClass().getName()));
+		}
+	}
+
+	/**
+	 * Reads a value written by {@link #writeValue(DataOutputStream, String, Object) writeValue()}.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readValue(final ByteBuffer buffer) {
+		final byte tag = buffer.get();
+		switch(tag){
+			case TAG_NULL :
+				return null;
+			case TAG_BOOLEAN :
+				return Boolean.valueOf(buffer.get() != 0);
+			case TAG_BYTE :
+				return Byte.valueOf(buffer.get());
+			case TAG_SHORT :
+				return Short.valueOf(buffer.getShort());
+			case TAG_CHAR :
+				return Character.valueOf(buffer.getChar());
+			case TAG_INT :
+				return Integer.valueOf(buffer.getInt());
+			case TAG_LONG :
+				return Long.valueOf(buffer.getLong());
+			case TAG_FLOAT :
+				return Float.valueOf(buffer.getFloat());
+			case TAG_DOUBLE :
+				return Double.valueOf(buffer.getDouble());
+			case TAG_STRING :
+				return readString(buffer);
+			case TAG_ENUM :
+				final String enumType = readString(buffer);
+				final String name = readString(buffer);
+				try{
+					return Enum.valueOf((Class<? extends Enum>) Class.forName(enumType, false, getClassLoader()), name);
+				}catch(final ClassNotFoundException cnfe){
+					throw new IllegalStateException(String.format(UNKNOWN_ENUM_TYPE, enumType), cnfe);
+				}
+			default :
+				throw new IllegalStateException(String.format(CORRUPTED_FILE, file.getPath(), tag));
+		}
+	}
+
+	/**
+	 * Writes a String as its UTF-8 length followed by its UTF-8 bytes.
+	 */
+	private static void writeString(final DataOutputStream out, final String value) throws IOException {
+		final byte[] bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a String written by {@link #writeString(DataOutputStream, String) writeString()}, decoding it straight from the buffer.
+	 */
+	private static String readString(final ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		final ByteBuffer slice = buffer.slice();
+		slice.limit(length);
+		buffer.position(buffer.position() + length);
+		return UTF_8.decode(slice).toString();
+	}
+
+	/**
+	 * Retrieves the class loader used to resolve the recorded enum types.
+	 */
+	private static ClassLoader getClassLoader() {
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		return (contextClassLoader != null) ? contextClassLoader : GoldenFile.class.getClassLoader();
+	}
+
+	/**
+	 * Checks that a key is usable.
+	 */
+	private static void checkKey(final String key) {
+		if((key == null) || (key.length() == 0)){
+			throw new IllegalArgumentException(KEY_IS_NULL_OR_EMPTY);
+		}
+	}
+}
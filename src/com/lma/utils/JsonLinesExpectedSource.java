@@ -0,0 +1,465 @@
+package com.lma.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JsonLinesExpectedSource reads the expected values of a sequence of objects from a JSON-lines stream,
+ * one JSON object per line, in place of the 'expected' Objects passed to MultiAssertBuilder.
+ * The stream is parsed incrementally : only the properties matching the asserted field paths are decoded,
+ * everything else is skipped without being built, so the memory used does not depend on the size of the stream.
+ * Each decoded value is converted to the type of the actual value before being asserted as equal.
+ * A property missing from a line is asserted as null.
+ * A line which cannot be parsed is skipped up to its end before the error is thrown, so the next call reads the next line.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code final JsonLinesExpectedSource source = new JsonLinesExpectedSource(new FileReader("expected.jsonl"));
+ * for (final Human human : actualHumans) {
+ * 	source.applyNext(new MultiAssertBuilder(human, null), "surname", "age", "dog.name")
+ * 		.runAssertions();
+ * }
+ * source.close();
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class JsonLinesExpectedSource implements Closeable {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String READER_IS_NULL_PARAMETER = "'reader' parameter is null in constructor.";
+	private static final String NO_MORE_LINES = "There are no more JSON lines to read.";
+	private static final String NOT_A_SCALAR = "The JSON property '%s' at line %d is not a scalar value. Assert its sub-fields instead.";
+	private static final String MALFORMED_JSON = "Malformed JSON at line %d : %s.";
+	private static final String IO_ERROR = "The JSON lines cannot be read.";
+	private static final String ESCAPED_DOT = "\\.";
+
+	/**
+	 * The number of characters read from the stream at once.
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The stream of JSON lines.
+	 */
+	private final Reader reader;
+
+	/**
+	 * The characters read from the stream, consumed from position up to limit.
+	 * The stream is read by blocks, so each character is only an index in the array.
+	 */
+	private final char[] chars = new char[BUFFER_SIZE];
+	private int position;
+	private int limit;
+
+	/**
+	 * The current line number, starting at 1.
+	 */
+	private int line = 1;
+
+	/**
+	 * Buffer reused to read the property names and the values.
+	 */
+	private final StringBuilder buffer = new StringBuilder();
+
+	/**
+	 * Constructor for a JsonLinesExpectedSource.
+	 *
+	 * @param reader (Reader) the stream of JSON lines, read by blocks by this source.
+	 */
+	public JsonLinesExpectedSource(final Reader reader){
+		if(reader == null){
+			throw new IllegalArgumentException(READER_IS_NULL_PARAMETER);
+		}
+		this.reader = reader;
+	}
+
+	/**
+	 * Determines if there is another JSON line to read.
+	 *
+	 * @return (boolean) true if another line can be applied.
+	 */
+	public boolean hasNext(){
+		try{
+			skipWhitespace();
+			return peek() != -1;
+		}catch(final IOException ioe){
+			throw new IllegalStateException(IO_ERROR, ioe);
+		}
+	}
+
+	/**
+	 * Reads the next JSON line and sets its properties matching the field paths to be asserted as equal on the builder.
+	 *
+	 * @param builder (MultiAssertBuilder) the builder of the next actual Object.
+	 * @param fieldPaths (String...) the names of the fields to assert, with the dot notation for sub-fields.
+	 * @return (MultiAssertBuilder) the builder.
+	 * @throws IllegalStateException : if there is no more line or if the line is not valid JSON.
+	 * @throws IllegalArgumentException : if a field does not exist or if its JSON value is an object or an array.
+	 */
+	public MultiAssertBuilder applyNext(final MultiAssertBuilder builder, final String... fieldPaths){
+		if(!hasNext()){
+			throw new IllegalStateException(NO_MORE_LINES);
+		}
+		final Set<String> fields = new HashSet<String>();
+		final Map<String, Set<String>> subFields = new HashMap<String, Set<String>>();
+		for (final String fieldPath : fieldPaths) {
+			final String[] splitResult = fieldPath.split(ESCAPED_DOT);
+			if(splitResult.length == 2){
+				if(!subFields.containsKey(splitResult[0])){
+					subFields.put(splitResult[0], new HashSet<String>());
+				}
+				subFields.get(splitResult[0]).add(splitResult[1]);
+			}else{
+				fields.add(fieldPath);
+			}
+		}
+		final Map<String, Object> values = new HashMap<String, Object>();
+		final int startLine = line;
+		try{
+			readObject(null, fields, subFields, values);
+		}catch(final IOException ioe){
+			throw new IllegalStateException(IO_ERROR, ioe);
+		}catch(final RuntimeException re){
+			skipLine(startLine);
+			throw re;
+		}
+		for (final String fieldPath : fieldPaths) {
+			builder.setAssertValue(fieldPath, toExpectedValue(values.get(fieldPath), builder.getFieldValue(fieldPath)), true);
+		}
+		return builder;
+	}
+
+	/**
+	 * Closes the stream of JSON lines.
+	 */
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Reads a JSON object, keeping only the wanted scalar properties and skipping the others.
+	 *
+	 * @param prefix (String) the path of the object, or null for the top-level object.
+	 * @param fields (Set<String>) the names of the wanted scalar properties.
+	 * @param subFields (Map<String, Set<String>>) the names of the wanted properties of each nested object.
+	 * @param values (Map<String, Object>) the values found, by path.
+	 */
+	private void readObject(final String prefix, final Set<String> fields, final Map<String, Set<String>> subFields, final Map<String, Object> values) throws IOException {
+		skipWhitespace();
+		expect('{');
+		skipWhitespace();
+		if(peek() == '}'){
+			read();
+			return;
+		}
+		while(true){
+			skipWhitespace();
+			final String name = readString();
+			final String path = (prefix == null) ? name : prefix + '.' + name;
+			skipWhitespace();
+			expect(':');
+			skipWhitespace();
+			if(fields.contains(name)){
+				values.put(path, readScalar(path));
+			}else if(subFields.containsKey(name) && (peek() == '{')){
+				readObject(name, subFields.get(name), new HashMap<String, Set<String>>(), values);
+			}else{
+				skipValue();
+			}
+			skipWhitespace();
+			final int c = read();
+			if(c == '}'){
+				return;
+			}
+			if(c != ','){
+				throw malformed("',' or '}' expected");
+			}
+		}
+	}
+
+	/**
+	 * Reads a scalar JSON value : a String, a number, a boolean or null.
+	 */
+	private Object readScalar(final String path) throws IOException {
+		final int c = peek();
+		if(c == '"'){
+			return readString();
+		}
+		if((c == '{') || (c == '[')){
+			throw new IllegalArgumentException(String.format(NOT_A_SCALAR, path, line));
+		}
+		final String token = readToken();
+		if("null".equals(token)){
+			return null;
+		}
+		if("true".equals(token) || "false".equals(token)){
+			return Boolean.valueOf(token);
+		}
+		if((token.length() == 0) || !isNumberStart(token.charAt(0))){
+			throw malformed("value expected");
+		}
+		return new JsonNumber(token);
+	}
+
+	/**
+	 * Skips a JSON value of any kind, including nested objects and arrays, without building it.
+	 */
+	private void skipValue() throws IOException {
+		int depth = 0;
+		do{
+			skipWhitespace();
+			final int c = peek();
+			if(c == '"'){
+				skipString();
+			}else if((c == '{') || (c == '[')){
+				read();
+				depth++;
+			}else if((c == '}') || (c == ']')){
+				read();
+				depth--;
+			}else if((c == ',') || (c == ':')){
+				if(depth == 0){
+					return;
+				}
+				read();
+			}else if(c == -1){
+				throw malformed("unexpected end of stream");
+			}else{
+				skipToken();
+			}
+		}while(depth > 0);
+	}
+
+	/**
+	 * Reads a JSON String, decoding its escape sequences.
+	 */
+	private String readString() throws IOException {
+		expect('"');
+		buffer.setLength(0);
+		while(true){
+			final int c = read();
+			if(c == '"'){
+				return buffer.toString();
+			}
+			if(c == '\\'){
+				buffer.append(readEscape());
+			}else if(c == -1){
+				throw malformed("unterminated String");
+			}else{
+				buffer.append((char) c);
+			}
+		}
+	}
+
+	/**
+	 * Skips a JSON String.
+	 */
+	private void skipString() throws IOException {
+		expect('"');
+		while(true){
+			final int c = read();
+			if(c == '"'){
+				return;
+			}
+			if(c == '\\'){
+				read();
+			}else if(c == -1){
+				throw malformed("unterminated String");
+			}
+		}
+	}
+
+	/**
+	 * Decodes the escape sequence following a backslash.
+	 */
+	private char readEscape() throws IOException {
+		final int c = read();
+		switch(c){
+			case 'b' :
+				return '\b';
+			case 'f' :
+				return '\f';
+			case 'n' :
+				return '\n';
+			case 'r' :
+				return '\r';
+			case 't' :
+				return '\t';
+			case 'u' :
+				int code = 0;
+				for (int i = 0; i < 4; i++) {
+					final int digit = Character.digit(read(), 16);
+					if(digit < 0){
+						throw malformed("invalid unicode escape");
+					}
+					code = (code << 4) | digit;
+				}
+				return (char) code;
+			case '"' :
+			case '\\' :
+			case '/' :
+				return (char) c;
+			default :
+				throw malformed("invalid escape sequence");
+		}
+	}
+
+	/**
+	 * Reads a number or a literal.
+	 */
+	private String readToken() throws IOException {
+		buffer.setLength(0);
+		while(isTokenPart(peek())){
+			buffer.append((char) read());
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Skips a number or a literal.
+	 */
+	private void skipToken() throws IOException {
+		if(!isTokenPart(peek())){
+			throw malformed("unexpected character '" + (char) peek() + "'");
+		}
+		while(isTokenPart(peek())){
+			read();
+		}
+	}
+
+	private static boolean isTokenPart(final int c){
+		return ((c >= 'a') && (c <= 'z')) || isNumberStart(c) || (c == '.') || (c == 'E') || (c == '+');
+	}
+
+	private static boolean isNumberStart(final int c){
+		return ((c >= '0') && (c <= '9')) || (c == '-');
+	}
+
+	private void skipWhitespace() throws IOException {
+		while(Character.isWhitespace(peek())){
+			read();
+		}
+	}
+
+	private void expect(final char expectedCharacter) throws IOException {
+		if(read() != expectedCharacter){
+			throw malformed("'" + expectedCharacter + "' expected");
+		}
+	}
+
+	/**
+	 * Skips the rest of a line which could not be parsed, up to its new line character, unless it was already read.
+	 */
+	private void skipLine(final int startLine){
+		try{
+			while((line == startLine) && (peek() != -1)){
+				read();
+			}
+		}catch(final IOException ioe){
+			// The parse error is thrown, the next call will report the stream error.
+		}
+	}
+
+	private int peek() throws IOException {
+		if(position == limit){
+			final int count = reader.read(chars, 0, chars.length);
+			if(count <= 0){
+				return -1;
+			}
+			position = 0;
+			limit = count;
+		}
+		return chars[position];
+	}
+
+	private int read() throws IOException {
+		final int c = peek();
+		if(c != -1){
+			position++;
+			if(c == '\n'){
+				line++;
+			}
+		}
+		return c;
+	}
+
+	private IllegalStateException malformed(final String reason){
+		return new IllegalStateException(String.format(MALFORMED_JSON, line, reason));
+	}
+
+	/**
+	 * Converts a decoded JSON value to the type of the actual value, so they can be compared with equals().
+	 * Values that cannot be converted are kept as decoded, so the assertion reports them.
+	 *
+	 * @param jsonValue (Object) the decoded JSON value.
+	 * @param actualValue (Object) the value of the field being tested.
+	 * @return (Object) the expected value.
+	 */
+	private static Object toExpectedValue(final Object jsonValue, final Object actualValue){
+		if(jsonValue instanceof JsonNumber){
+			return ((JsonNumber) jsonValue).toNumber(actualValue);
+		}
+		if(jsonValue instanceof String){
+			final String text = (String) jsonValue;
+			if(actualValue instanceof Enum<?>){
+				for (final Object constant : ((Enum<?>) actualValue).getDeclaringClass().getEnumConstants()) {
+					if(((Enum<?>) constant).name().equals(text)){
+						return constant;
+					}
+				}
+			}else if((actualValue instanceof Character) && (text.length() == 1)){
+				return Character.valueOf(text.charAt(0));
+			}
+		}
+		return jsonValue;
+	}
+
+	/**
+	 * A JSON number, kept as text until the type of the actual value is known.
+	 */
+	private static final class JsonNumber {
+
+		private final String token;
+
+		private JsonNumber(final String token){
+			this.token = token;
+		}
+
+		private Object toNumber(final Object actualValue){
+			try{
+				if(actualValue instanceof Integer){
+					return Integer.valueOf(token);
+				}else if(actualValue instanceof Long){
+					return Long.valueOf(token);
+				}else if(actualValue instanceof Double){
+					return Double.valueOf(token);
+				}else if(actualValue instanceof Float){
+					return Float.valueOf(token);
+				}else if(actualValue instanceof Short){
+					return Short.valueOf(token);
+				}else if(actualValue instanceof Byte){
+					return Byte.valueOf(token);
+				}else if(actualValue instanceof BigDecimal){
+					return new BigDecimal(token);
+				}else if(actualValue instanceof BigInteger){
+					return new BigInteger(token);
+				}else if((token.indexOf('.') < 0) && (token.indexOf('e') < 0) && (token.indexOf('E') < 0)){
+					return Long.valueOf(token);
+				}
+				return Double.valueOf(token);
+			}catch(final NumberFormatException nfe){
+				return token;
+			}
+		}
+	}
+}
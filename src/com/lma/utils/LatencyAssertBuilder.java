@@ -0,0 +1,135 @@
+package com.lma.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LatencyAssertBuilder asserts that an operation stays fast enough. The operation is run a number of times to warm it up,
+ * then every run is timed and recorded in a histogram, and the requested percentiles are asserted against their budget.
+ * The results are reported like the field assertions of MultiAssertBuilder. See {@link MeasuredAssertBuilder}.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code MultiAssertBuilder.assertLatency(operation)
+ * 	.warmUp(5000)
+ * 	.iterations(10000)
+ * 	.p50Below(20, TimeUnit.MICROSECONDS)
+ * 	.p99Below(200, TimeUnit.MICROSECONDS)
+ * 	.runAssertions();
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class LatencyAssertBuilder extends MeasuredAssertBuilder<LatencyAssertBuilder> {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String INVALID_PERCENTILE = "Method percentileBelow() - the percentile must be between 0 and 100.";
+	private static final String INVALID_BUDGET = "Method percentileBelow() - the budget must be greater than 0 and its unit cannot be null.";
+	private static final String OK_MESSAGE = "OK : the p%s latency of '%s' is %.3f microseconds, within the budget of %.3f microseconds.";
+	private static final String KO_MESSAGE = "KO : the p%s latency of '%s' is %.3f microseconds but it should be below %.3f microseconds.\n	Runs : %d / Mean : %.3f / Max : %.3f microseconds";
+	private static final String LATENCY = "latency";
+
+	/**
+	 * Collection containing the budget of each percentile, in nanoseconds.
+	 */
+	private final Map<Double, Long> percentileBudgets = new LinkedHashMap<Double, Long>();
+
+	/**
+	 * Constructor for a LatencyAssertBuilder. See {@link MultiAssertBuilder#assertLatency(Runnable) MultiAssertBuilder.assertLatency()}.
+	 *
+	 * @param operation (Runnable) the operation to measure
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 */
+	LatencyAssertBuilder(final Runnable operation, final boolean verbose){
+		super(operation, verbose, LATENCY, LATENCY);
+	}
+
+	/**
+	 * Sets a percentile of the latency to be asserted as below a budget.
+	 *
+	 * @param percentile (double) the percentile, between 0 and 100, like 99.9
+	 * @param budget (long) the highest latency allowed for this percentile
+	 * @param unit (TimeUnit) the unit of the budget
+	 * @return this instance of LatencyAssertBuilder
+	 */
+	public LatencyAssertBuilder percentileBelow(final double percentile, final long budget, final TimeUnit unit){
+		if((percentile < 0) || (percentile > 100)){
+			throw new IllegalArgumentException(INVALID_PERCENTILE);
+		}
+		if((budget <= 0) || (unit == null)){
+			throw new IllegalArgumentException(INVALID_BUDGET);
+		}
+		percentileBudgets.put(Double.valueOf(percentile), Long.valueOf(unit.toNanos(budget)));
+		return this;
+	}
+
+	/**
+	 * Sets the median latency to be asserted as below a budget.
+	 */
+	public LatencyAssertBuilder p50Below(final long budget, final TimeUnit unit){
+		return percentileBelow(50, budget, unit);
+	}
+
+	/**
+	 * Sets the 90th percentile of the latency to be asserted as below a budget.
+	 */
+	public LatencyAssertBuilder p90Below(final long budget, final TimeUnit unit){
+		return percentileBelow(90, budget, unit);
+	}
+
+	/**
+	 * Sets the 99th percentile of the latency to be asserted as below a budget.
+	 */
+	public LatencyAssertBuilder p99Below(final long budget, final TimeUnit unit){
+		return percentileBelow(99, budget, unit);
+	}
+
+	/**
+	 * Sets the 99.9th percentile of the latency to be asserted as below a budget.
+	 */
+	public LatencyAssertBuilder p999Below(final long budget, final TimeUnit unit){
+		return percentileBelow(99.9, budget, unit);
+	}
+
+	/**
+	 * Times every measured run in a histogram, and asserts all the percentiles.
+	 */
+	@Override
+	void measure(){
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < iterations; i++) {
+			final long runStart = System.nanoTime();
+			operation.run();
+			histogram.record(System.nanoTime() - runStart);
+		}
+		for (final Entry<Double, Long> percentileBudget : percentileBudgets.entrySet()) {
+			final double percentile = percentileBudget.getKey().doubleValue();
+			final long latency = histogram.getPercentile(percentile);
+			final long budget = percentileBudget.getValue().longValue();
+			if(latency <= budget){
+				report.logOKMessage(String.format(OK_MESSAGE, formatPercentile(percentile), name, toMicros(latency), toMicros(budget)));
+			}else{
+				report.logKOMessage(String.format(KO_MESSAGE, formatPercentile(percentile), name, toMicros(latency), toMicros(budget),
+						histogram.getTotalCount(), histogram.getMean() / 1000.0, toMicros(histogram.getMax())));
+			}
+		}
+	}
+
+	/**
+	 * Formats a percentile without useless decimals : 99 or 99.9.
+	 */
+	private static String formatPercentile(final double percentile){
+		if(percentile == Math.floor(percentile)){
+			return String.valueOf((long) percentile);
+		}
+		return String.valueOf(percentile);
+	}
+
+	private static double toMicros(final long nanos){
+		return nanos / 1000.0;
+	}
+}
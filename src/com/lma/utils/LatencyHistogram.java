@@ -0,0 +1,105 @@
+package com.lma.utils;
+
+/**
+ * LatencyHistogram records durations in nanoseconds in log-linear buckets : every duration costs one array increment,
+ * whatever the number of recorded durations, and the percentiles are read with a precision of about 1.5%.
+ * Durations below 128 nanoseconds are recorded exactly. Above, each power of two is split into 64 buckets.
+ */
+final class LatencyHistogram {
+
+	/**
+	 * Number of bits of precision of each bucket.
+	 */
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int EXACT_LIMIT = SUB_BUCKET_COUNT << 1;
+
+	/**
+	 * Number of durations recorded in each bucket.
+	 */
+	private final long[] counts = new long[EXACT_LIMIT + ((Long.SIZE - SUB_BUCKET_BITS - 2) * SUB_BUCKET_COUNT)];
+
+	private long totalCount;
+	private long totalDuration;
+	private long maxDuration;
+
+	/**
+	 * Records a duration.
+	 * 
+	 * @param duration (long) the duration in nanoseconds, negative values are recorded as 0.
+	 */
+	void record(final long duration){
+		final long value = Math.max(0, duration);
+		counts[indexOf(value)]++;
+		totalCount++;
+		totalDuration += value;
+		maxDuration = Math.max(maxDuration, value);
+	}
+
+	/**
+	 * Retrieves the number of recorded durations.
+	 */
+	long getTotalCount(){
+		return totalCount;
+	}
+
+	/**
+	 * Retrieves the highest recorded duration, in nanoseconds.
+	 */
+	long getMax(){
+		return maxDuration;
+	}
+
+	/**
+	 * Retrieves the mean of the recorded durations, in nanoseconds.
+	 */
+	double getMean(){
+		return (totalCount == 0) ? 0 : (double) totalDuration / totalCount;
+	}
+
+	/**
+	 * Retrieves the duration below or at which the percentage of recorded durations falls.
+	 * The highest duration of the bucket is returned, so the percentile is never under-estimated.
+	 * 
+	 * @param percentile (double) the percentage, between 0 and 100.
+	 * @return (long) the duration in nanoseconds, or 0 if nothing was recorded.
+	 */
+	long getPercentile(final double percentile){
+		if(totalCount == 0){
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil((percentile / 100.0) * totalCount));
+		long count = 0;
+		for (int i = 0; i < counts.length; i++) {
+			count += counts[i];
+			if(count >= rank){
+				return Math.min(highestValueOf(i), maxDuration);
+			}
+		}
+		return maxDuration;
+	}
+
+	/**
+	 * Computes the bucket of a duration.
+	 */
+	private static int indexOf(final long value){
+		if(value < EXACT_LIMIT){
+			return (int) value;
+		}
+		final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		final int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+		return EXACT_LIMIT + ((shift - 1) * SUB_BUCKET_COUNT) + subBucket;
+	}
+
+	/**
+	 * Computes the highest duration recorded in a bucket.
+	 */
+	private static long highestValueOf(final int index){
+		if(index < EXACT_LIMIT){
+			return index;
+		}
+		final int shift = ((index - EXACT_LIMIT) / SUB_BUCKET_COUNT) + 1;
+		final long subBucket = ((index - EXACT_LIMIT) % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
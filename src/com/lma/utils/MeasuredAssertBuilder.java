@@ -0,0 +1,160 @@
+package com.lma.utils;
+
+/**
+ * MeasuredAssertBuilder is the skeleton of the builders asserting a measure of an operation, like its latency or its allocations.
+ * The operation is run a number of times to warm it up, then measured over a number of runs by the sub-class,
+ * and the results are reported like the field assertions of MultiAssertBuilder.
+ *
+ * @param <B> the type of the sub-class, returned by the chained methods.
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public abstract class MeasuredAssertBuilder<B extends MeasuredAssertBuilder<B>> {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String OPERATION_IS_NULL_PARAMETER = "'operation' parameter is null.";
+	private static final String NEGATIVE_WARM_UP = "Method warmUp() - the number of runs cannot be negative.";
+	private static final String ITERATIONS_NOT_POSITIVE = "Method iterations() - the number of runs must be greater than 0.";
+	private static final String EXECUTE_IN_MSG = "=> MultiAssertBuilder is measuring the %s of '%s' over %d runs after %d warm-up runs.";
+	private static final String EXECUTE_OUT_SUCCESS = "=> MultiAssertBuilder %s tests for '%s' ended successfully with no errors and lasted %.3f milliseconds.";
+	private static final String EXECUTE_OUT_MSG_ERROR_MAIN = "=> MultiAssertBuilder %s tests for '%s' ended with %d error(s) and lasted %.3f milliseconds.";
+
+	/**
+	 * The operation to measure.
+	 */
+	final Runnable operation;
+
+	/**
+	 * What is measured, in the logs : "latency", "allocations".
+	 */
+	private final String measureName;
+
+	/**
+	 * The kind of tests, in the logs : "latency", "allocation".
+	 */
+	private final String testsName;
+
+	/**
+	 * The name of the operation in the logs.
+	 */
+	String name;
+
+	/**
+	 * The number of runs before the measures, not measured.
+	 */
+	private int warmUpIterations = 1000;
+
+	/**
+	 * The number of measured runs.
+	 */
+	int iterations = 1000;
+
+	/**
+	 * Collection of logs for assertions that went well and wrong.
+	 */
+	final AssertionReport report;
+
+	/**
+	 * Constructor for a MeasuredAssertBuilder.
+	 *
+	 * @param operation (Runnable) the operation to measure
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 * @param measureName (String) what is measured, in the logs
+	 * @param testsName (String) the kind of tests, in the logs
+	 */
+	MeasuredAssertBuilder(final Runnable operation, final boolean verbose, final String measureName, final String testsName){
+		if(operation == null){
+			throw new IllegalArgumentException(OPERATION_IS_NULL_PARAMETER);
+		}
+		this.operation = operation;
+		this.measureName = measureName;
+		this.testsName = testsName;
+		this.name = operation.getClass().getName();
+		this.report = new AssertionReport(verbose);
+	}
+
+	/**
+	 * Sets the name of the operation in the logs. The name of its class is used by default.
+	 *
+	 * @param name (String) the name of the operation
+	 * @return this instance of the builder
+	 */
+	public B named(final String name){
+		this.name = name;
+		return self();
+	}
+
+	/**
+	 * Sets the number of runs before the measures, so the operation is measured once compiled. 1000 by default.
+	 *
+	 * @param warmUpIterations (int) the number of runs, 0 to measure from the first run
+	 * @return this instance of the builder
+	 */
+	public B warmUp(final int warmUpIterations){
+		if(warmUpIterations < 0){
+			throw new IllegalArgumentException(NEGATIVE_WARM_UP);
+		}
+		this.warmUpIterations = warmUpIterations;
+		return self();
+	}
+
+	/**
+	 * Sets the number of measured runs. 1000 by default.
+	 *
+	 * @param iterations (int) the number of runs
+	 * @return this instance of the builder
+	 */
+	public B iterations(final int iterations){
+		if(iterations <= 0){
+			throw new IllegalArgumentException(ITERATIONS_NOT_POSITIVE);
+		}
+		this.iterations = iterations;
+		return self();
+	}
+
+	/**
+	 * Runs the operation, measures it and asserts the measures against their budget, then prints all the necessary logs in the output.
+	 *
+	 * @throws AssertionError : if at least one measure is over its budget.
+	 */
+	public void runAssertions(){
+		final long startTime = System.nanoTime();
+		checkMeasurable();
+		report.clear();
+		if(report.isVerbose()){
+			System.out.println(String.format(EXECUTE_IN_MSG, measureName, name, iterations, warmUpIterations));
+		}
+		for (int i = 0; i < warmUpIterations; i++) {
+			operation.run();
+		}
+		measure();
+		final double durationInMilliseconds = (double) (System.nanoTime() - startTime) / 1000000.0f;
+		final int KOSize = report.getKOCount();
+		if(KOSize>0){
+			report.printEndLog(String.format(EXECUTE_OUT_MSG_ERROR_MAIN, testsName, name, KOSize, durationInMilliseconds));
+		} else {
+			report.printEndLog(String.format(EXECUTE_OUT_SUCCESS, testsName, name, durationInMilliseconds));
+		}
+	}
+
+	/**
+	 * Checks that the measure can be taken, before the operation is run. Nothing to check by default.
+	 *
+	 * @throws IllegalStateException : if the JVM cannot take the measure.
+	 */
+	void checkMeasurable(){
+		// Every JVM can take the measure by default.
+	}
+
+	/**
+	 * Runs and measures the operation the number of measured runs, and logs the result of each budget in the report.
+	 */
+	abstract void measure();
+
+	@SuppressWarnings("unchecked")
+	private B self(){
+		return (B) this;
+	}
+}
@@ -4,13 +4,16 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-
-import org.junit.Assert;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * MultiAssertBuilder is a class that will enable fast assertions for all the fields of an object,
@@ -43,7 +46,7 @@ public class MultiAssertBuilder{
 	 * AssertionType enumerates all the assertion operations covered by MultiAssertBuilder.
 	 * Each enumerated value holds two specific customizable log messages : one for assertion errors and another for assertion success.
 	 */
-	private enum AssertionType{
+	public enum AssertionType{
 
 		NOT_EQUALS("OK : '%s' fields are not equal. Actual : '%s' / Expected : '%s'", "KO : the fields named '%s' are equal but they should not be.\n	Actual : '%s' / Expected : '%s'"),
 		EQUALS("OK : '%s' fields are equal. Actual : '%s' / Expected : '%s'", "KO : the fields named '%s' are not equal but they should be.\n	Actual : '%s' / Expected : '%s'"),
@@ -73,6 +76,221 @@ public class MultiAssertBuilder{
 		}
 	}
 
+	/**
+	 * FieldCheck is one assertion on a field, a sub-field or a field against a value, resolved from the settings of the builder.
+	 * Its result is kept until all the checks have run, so the logs are always reported in the same order.
+	 */
+	private final class FieldCheck {
+
+		private final String fieldName;
+		private final AssertionType assertionType;
+		private final Field field;
+		private final String subFieldName;
+		private final boolean againstValue;
+		private final Object value;
+		private Object actualValue;
+		private Object expectedValue;
+		private Field checkedField;
+		private Class<?> subObjectType;
+		private boolean valuesRead;
+		private boolean passed;
+		private String message;
+
+		/**
+		 * Constructor for the check of a field or a sub-field of both objects.
+		 */
+		private FieldCheck(final String fieldName, final AssertionType assertionType, final Field field, final String subFieldName){
+			this.fieldName = fieldName;
+			this.assertionType = assertionType;
+			this.field = field;
+			this.subFieldName = subFieldName;
+			this.againstValue = false;
+			this.value = null;
+		}
+
+		/**
+		 * Constructor for the check of a field or a sub-field of the Object to test against a value.
+		 */
+		private FieldCheck(final String fieldName, final AssertionType assertionType, final Field field, final String subFieldName, final Object value){
+			this.fieldName = fieldName;
+			this.assertionType = assertionType;
+			this.field = field;
+			this.subFieldName = subFieldName;
+			this.againstValue = true;
+			this.value = value;
+		}
+
+		/**
+		 * Reads the values to check and runs the assertion, recording it if it is slow.
+		 * 
+		 * @param slowCheckRecorder (AssertionRecorder) the recorder of the slow checks, or null if the checks are not timed.
+		 * @param slowCheckThreshold (long) the duration from which a check is recorded, in nanoseconds.
+		 */
+		private void run(final AssertionRecorder slowCheckRecorder, final long slowCheckThreshold){
+			if(slowCheckRecorder==null){
+				run();
+				return;
+			}
+			final long start = System.nanoTime();
+			run();
+			final long duration = System.nanoTime() - start;
+			if(duration>=slowCheckThreshold){
+				slowCheckRecorder.recordSlowCheck(examinedClass, fieldName, assertionType, duration);
+			}
+		}
+
+		/**
+		 * Reads the values to check, unless they were read beforehand for a consistent view, and runs the assertion.
+		 * The coverage is counted against the field, or the sub-field, resolved when the values were read.
+		 */
+		private void run(){
+			if(!valuesRead){
+				readValues();
+			}
+			if(FieldCoverage.isEnabled()){
+				if(subObjectType!=null){
+					FieldCoverage.registerFields(subObjectType, retrieveFieldList(subObjectType));
+				}
+				FieldCoverage.countCheck(checkedField, assertionType);
+			}
+			checkValues(this, actualValue, expectedValue);
+		}
+
+		/**
+		 * Reads the values to check from both objects, or from the Object to test for a check against a value.
+		 * The sub-field read in the Object to test is kept for the coverage.
+		 */
+		private void readValues(){
+			try{
+				if(subFieldName!=null){
+					final Object actualSubObject = getSubObject(subFieldName, field, actual);
+					checkedField = findSubField(subFieldName, field, actualSubObject);
+					subObjectType = actualSubObject.getClass();
+					actualValue = checkedField.get(actualSubObject);
+					expectedValue = againstValue ? value : getSubFieldValue(subFieldName, field, expected);
+				}else{
+					checkedField = field;
+					actualValue = field.get(actual);
+					expectedValue = againstValue ? value : field.get(expected);
+				}
+			} catch (final IllegalAccessException iae){
+				throw new RuntimeException(String.format(UNKNOWN_ERROR, field.getName()));
+			}
+			valuesRead = true;
+		}
+
+		/**
+		 * Retrieves the log of the check, rendered on the first call only, within the render limits of the builder.
+		 */
+		private String getMessage(){
+			if(message==null){
+				final String template = passed ? assertionType.getSuccessMessage() : assertionType.getErrorMessage();
+				message = String.format(template, fieldName, renderer.render(actualValue), renderer.render(expectedValue));
+			}
+			return message;
+		}
+	}
+
+	/**
+	 * ChecksPart runs one of the interleaved parts of a list of checks : the checks at index part, part + partCount, etc.
+	 * It stops at the first check which throws, and keeps its exception and its index.
+	 */
+	private static final class ChecksPart implements Runnable {
+
+		private final List<FieldCheck> checks;
+		private final int part;
+		private final int partCount;
+		private final AssertionRecorder slowCheckRecorder;
+		private final long slowCheckThreshold;
+		private int failedIndex = Integer.MAX_VALUE;
+		private Throwable failure;
+
+		private ChecksPart(final List<FieldCheck> checks, final int part, final int partCount, final AssertionRecorder slowCheckRecorder, final long slowCheckThreshold){
+			this.checks = checks;
+			this.part = part;
+			this.partCount = partCount;
+			this.slowCheckRecorder = slowCheckRecorder;
+			this.slowCheckThreshold = slowCheckThreshold;
+		}
+
+		public void run(){
+			for (int i = part; i < checks.size(); i += partCount) {
+				try{
+					checks.get(i).run(slowCheckRecorder, slowCheckThreshold);
+				}catch(final RuntimeException re){
+					fail(i, re);
+					return;
+				}catch(final Error error){
+					fail(i, error);
+					return;
+				}
+			}
+		}
+
+		private void fail(final int index, final Throwable error){
+			failedIndex = index;
+			failure = error;
+		}
+	}
+
+	/**
+	 * PreloadTask resolves the fields of a class and of the classes of its fields. The class is either given, or loaded by its name.
+	 */
+	private static final class PreloadTask implements Callable<List<Class<?>>> {
+
+		private final Class<?> type;
+		private final String className;
+		private final ClassLoader classLoader;
+
+		private PreloadTask(final Class<?> type, final String className, final ClassLoader classLoader){
+			this.type = type;
+			this.className = className;
+			this.classLoader = classLoader;
+		}
+
+		public List<Class<?>> call() {
+			final List<Class<?>> resolvedTypes = new ArrayList<Class<?>>();
+			try{
+				final Class<?> loadedType = (type != null) ? type : Class.forName(className, false, classLoader);
+				if(!isPreloadable(loadedType)){
+					return resolvedTypes;
+				}
+				resolvedTypes.add(loadedType);
+				for (final Field field : retrieveFieldList(loadedType)) {
+					final Class<?> fieldType = field.getType();
+					if(isPreloadable(fieldType)){
+						retrieveFieldList(fieldType);
+						resolvedTypes.add(fieldType);
+					}
+				}
+			}catch(final ClassNotFoundException cnfe){
+				// A scanned class that the class loader cannot find is skipped. Only a scanned class is loaded by its name.
+			}catch(final LinkageError le){
+				if(type != null){
+					throw le;
+				}
+				// A scanned class that cannot be loaded is skipped.
+			}catch(final RuntimeException re){
+				if(type != null){
+					throw re;
+				}
+				// A scanned class whose fields cannot be made accessible is skipped.
+			}
+			return resolvedTypes;
+		}
+	}
+
+	/**
+	 * The recorder of the profiling events of all the builders. Null if nothing is recorded.
+	 */
+	private static volatile AssertionRecorder recorder;
+
+	/**
+	 * Cache used to store all the necessary fields for each type, so the fields are fetched only once per type for all the builders.
+	 * It does not keep the types alive, nor their class loaders.
+	 */
+	private static final FieldListCache TYPE_TO_FIELDS_LIST_CACHE = new FieldListCache();
+
 	/**
 	 * Field storing the time at which the tests started, in nanoseconds.
 	 */
@@ -95,10 +313,17 @@ public class MultiAssertBuilder{
 	private static final String THE_SUB_FIELD_DOES_NOT_EXIST = "The sub-field '%s' does not exist in the field '%s'.";
 	private static final String INCORRECT_FORMAT = "The sub-field '%s' is incorrectly named. 1 dot '.' is required.";
 	private static final String EXECUTE_IN_MSG = "=> MultiAssertBuilder is testing two objects of the type '%s'.";
-	private static final String MAIN_ASSERTION_ERROR_MESSAGE = "See the logs for the details on the %d error(s).";
 	private static final String EXPECTED_IS_NULL_PARAMETER = "'expected' parameter is null in constructor.";
 	private static final String ACTUAL_IS_NULL_PARAMETER = "'actual' parameter is null in constructor.";
 	private static final String PARAMETERS_NOT_SAME_TYPE = "Both parameters must be of the same type.";
+	private static final String INTERRUPTED = "MultiAssertBuilder was interrupted while waiting for its parallel checks.";
+	private static final String NEGATIVE_PARALLEL_THRESHOLD = "Method setParallelEvaluation() - the threshold cannot be negative.";
+	private static final String READ_ATTEMPTS_NOT_POSITIVE = "Method setConsistentReads() - the number of attempts must be greater than 0.";
+	private static final String INCONSISTENT_READS = "No consistent view of the fields of the type '%s' could be read in %d attempt(s).";
+	private static final String RENDER_LIMITS_NOT_POSITIVE = "Method setRenderLimits() - the limits must be greater than 0.";
+	private static final String PRELOAD_INTERRUPTED = "MultiAssertBuilder was interrupted while preloading the fields.";
+	private static final String JAVA_PACKAGE = "java.";
+	private static final String JAVAX_PACKAGE = "javax.";
 	private static final String ESCAPED_DOT = "\\.";
 	private static final String DOT = ".";
 
@@ -187,19 +412,45 @@ public class MultiAssertBuilder{
 	private Class<? extends Object> examinedClass;
 	
 	/**
-	 * Map used to store all the necessary fields for each time, so the fields can be fetched only once per type.
+	 * Snapshot of the last checked values, used to skip the fields whose values did not change. Null if not set.
+	 */
+	private FieldSnapshot snapshot;
+
+	/**
+	 * Cache of the results of equals() between immutable values, shared between builders. Null if not set.
+	 */
+	private EqualityCache equalityCache;
+
+	/**
+	 * Minimum number of checks for the assertions to run in parallel, used as the estimate of the cost of a run. 0 if the parallel evaluation is off.
 	 */
-	private Map<String, List<Field>> typeToFieldsListMap;
+	private int parallelThreshold;
 
 	/**
-	 * Collection of logs for assertions that went well.
+	 * Volatile field written after each read of the values of a consistent view. A volatile write followed by a volatile read
+	 * is a full fence : the plain reads of the values cannot be reordered after the read of the stamp, or after the next read.
 	 */
-	private final List<String> OKMessages = new ArrayList<String>();
+	private static volatile int readFence;
 
 	/**
-	 * Collection of logs for assertions that went wrong.
+	 * Maximum number of attempts to read a consistent view of the fields. 0 if the values are read when checked.
 	 */
-	private final List<String> KOMessages = new ArrayList<String>();
+	private int consistentReadAttempts;
+
+	/**
+	 * Name of the field whose value changes with each update of the Object to test. Null to compare two successive reads instead.
+	 */
+	private String stampField;
+
+	/**
+	 * Renders the values in the logs, within limits.
+	 */
+	private ValueRenderer renderer = ValueRenderer.DEFAULT;
+
+	/**
+	 * Collection of logs for assertions that went well and wrong.
+	 */
+	private final AssertionReport report;
 
 	/**
 	 * Constructor for a MultiAssertBuilder. Mode verbose is off by default.
@@ -232,6 +483,7 @@ public class MultiAssertBuilder{
 		this.actual = actual;
 		this.expected = expected;
 		this.verbose = verbose;
+		report = new AssertionReport(verbose);
 		assertNotEqualFields = new ArrayList<String>();
 		assertEqualFields = new ArrayList<String>();
 		assertNullFields = new ArrayList<String>();
@@ -242,7 +494,174 @@ public class MultiAssertBuilder{
 		assertNullSubFields = new HashMap<String, List<String>>();
 		assertEqualsValueFields = new HashMap<String, Object>();
 		assertNotEqualsValueFields = new HashMap<String, Object>();
-		typeToFieldsListMap = new HashMap<String, List<Field>>();
+	}
+
+	/**
+	 * Starts the assertions on the latency of an operation. Mode verbose is off by default.
+	 * See {@link LatencyAssertBuilder} for the budgets that can be asserted.
+	 * 
+	 * @param operation (Runnable) the operation to measure
+	 * @return a new instance of LatencyAssertBuilder
+	 */
+	public static LatencyAssertBuilder assertLatency(final Runnable operation){
+		return assertLatency(operation, false);
+	}
+
+	/**
+	 * Starts the assertions on the latency of an operation. Verbose mode can be set manually.
+	 * See {@link LatencyAssertBuilder} for the budgets that can be asserted.
+	 * 
+	 * @param operation (Runnable) the operation to measure
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 * @return a new instance of LatencyAssertBuilder
+	 */
+	public static LatencyAssertBuilder assertLatency(final Runnable operation, final boolean verbose){
+		return new LatencyAssertBuilder(operation, verbose);
+	}
+
+	/**
+	 * Starts the assertions on the memory allocated by an operation. Mode verbose is off by default.
+	 * See {@link AllocationAssertBuilder} for the budget that can be asserted.
+	 * 
+	 * @param operation (Runnable) the operation to measure
+	 * @return a new instance of AllocationAssertBuilder
+	 */
+	public static AllocationAssertBuilder assertAllocation(final Runnable operation){
+		return assertAllocation(operation, false);
+	}
+
+	/**
+	 * Starts the assertions on the memory allocated by an operation. Verbose mode can be set manually.
+	 * See {@link AllocationAssertBuilder} for the budget that can be asserted.
+	 * 
+	 * @param operation (Runnable) the operation to measure
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 * @return a new instance of AllocationAssertBuilder
+	 */
+	public static AllocationAssertBuilder assertAllocation(final Runnable operation, final boolean verbose){
+		return new AllocationAssertBuilder(operation, verbose);
+	}
+
+	/**
+	 * Starts the reconciliation of two collections of records paired by a key field, whatever their order. Mode verbose is off by default.
+	 * See {@link ReconcileAssertBuilder} for the assertions run on each pair.
+	 *
+	 * @param actuals (Iterable<?>) the records to test
+	 * @param expecteds (Iterable<?>) the records containing the target values
+	 * @param keyField (String) the name of the field identifying a record, like 'id', with the dot notation for a sub-field
+	 * @return a new instance of ReconcileAssertBuilder
+	 */
+	public static ReconcileAssertBuilder reconcile(final Iterable<?> actuals, final Iterable<?> expecteds, final String keyField){
+		return reconcile(actuals, expecteds, keyField, false);
+	}
+
+	/**
+	 * Starts the reconciliation of two collections of records paired by a key field, whatever their order. Verbose mode can be set manually.
+	 * See {@link ReconcileAssertBuilder} for the assertions run on each pair.
+	 *
+	 * @param actuals (Iterable<?>) the records to test
+	 * @param expecteds (Iterable<?>) the records containing the target values
+	 * @param keyField (String) the name of the field identifying a record, like 'id', with the dot notation for a sub-field
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 * @return a new instance of ReconcileAssertBuilder
+	 */
+	public static ReconcileAssertBuilder reconcile(final Iterable<?> actuals, final Iterable<?> expecteds, final String keyField, final boolean verbose){
+		return new ReconcileAssertBuilder(actuals, expecteds, keyField, verbose);
+	}
+
+	/**
+	 * Registers the recorder of the profiling events of all the builders of the JVM, for example to feed JDK Flight Recorder.
+	 * When no recorder is registered, which is the default, or while it is not enabled, the assertions are not measured at all.
+	 * 
+	 * @param recorder (AssertionRecorder) the recorder, or null to stop recording.
+	 */
+	public static void setRecorder(final AssertionRecorder recorder){
+		MultiAssertBuilder.recorder = recorder;
+	}
+
+	/**
+	 * Resolves the fields of some classes in advance, in parallel, for example at the start of a test suite,
+	 * so that the first builder of each class does not pay for the reflection inside a timed test.
+	 * The classes of their fields are resolved too, for the sub-fields. The fields are shared by all the builders of the JVM.
+	 * 
+	 * @param types (Class<?>...) the classes of the objects that will be tested. The interfaces and the enumerations are ignored.
+	 * @return (int) the number of classes whose fields are resolved, including the classes of their fields.
+	 */
+	public static int preload(final Class<?>... types){
+		final List<PreloadTask> tasks = new ArrayList<PreloadTask>();
+		for (final Class<?> type : types) {
+			tasks.add(new PreloadTask(type, null, null));
+		}
+		return runPreloadTasks(tasks);
+	}
+
+	/**
+	 * Resolves the fields of all the classes of some packages and of their sub-packages in advance, in parallel.
+	 * The classes are found in the directories and the jar files of the class path of the context class loader and of its parents,
+	 * and loaded without being initialized.
+	 * The classes that cannot be loaded, for example because of a missing optional dependency, are skipped,
+	 * as well as the interfaces, the enumerations and the classes whose fields cannot be made accessible.
+	 * See {@link #preload(Class...) preload()}.
+	 * 
+	 * @param packageNames (String...) the names of the packages, like com.company.model.
+	 * @return (int) the number of classes whose fields are resolved, including the classes of their fields.
+	 * @throws IllegalArgumentException : if a package is not in the class path.
+	 */
+	public static int preloadPackages(final String... packageNames){
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if(classLoader == null){
+			classLoader = MultiAssertBuilder.class.getClassLoader();
+		}
+		final List<PreloadTask> tasks = new ArrayList<PreloadTask>();
+		for (final String packageName : packageNames) {
+			for (final String className : PackageScanner.findClassNames(packageName, classLoader)) {
+				tasks.add(new PreloadTask(null, className, classLoader));
+			}
+		}
+		return runPreloadTasks(tasks);
+	}
+
+	/**
+	 * Runs the preload tasks on the shared pool and waits for them.
+	 * 
+	 * @param tasks (List<PreloadTask>) the tasks to run.
+	 * @return (int) the number of distinct classes resolved by the tasks.
+	 */
+	private static int runPreloadTasks(final List<PreloadTask> tasks) {
+		final List<Future<List<Class<?>>>> futures = new ArrayList<Future<List<Class<?>>>>();
+		for (final PreloadTask task : tasks) {
+			futures.add(AssertionExecutors.getSharedPool().submit(task));
+		}
+		final Set<Class<?>> resolvedTypes = new HashSet<Class<?>>();
+		for (final Future<List<Class<?>>> future : futures) {
+			try{
+				resolvedTypes.addAll(future.get());
+			}catch(final InterruptedException ie){
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(PRELOAD_INTERRUPTED, ie);
+			}catch(final ExecutionException ee){
+				if(ee.getCause() instanceof Error){
+					throw (Error) ee.getCause();
+				}
+				if(ee.getCause() instanceof RuntimeException){
+					throw (RuntimeException) ee.getCause();
+				}
+				throw new IllegalStateException(ee.getCause());
+			}
+		}
+		return resolvedTypes.size();
+	}
+
+	/**
+	 * Determines if the fields of a class can be asserted as sub-fields, and are worth resolving in advance.
+	 * The classes of the JDK, the primitive types, the arrays, the interfaces and the enumerations are not.
+	 */
+	private static boolean isPreloadable(final Class<?> type){
+		if(type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum()){
+			return false;
+		}
+		final String typeName = type.getName();
+		return !(typeName.startsWith(JAVA_PACKAGE) || typeName.startsWith(JAVAX_PACKAGE));
 	}
 
 	/**
@@ -310,6 +729,166 @@ public class MultiAssertBuilder{
 		return this;
 	}
 
+	/**
+	 * Sets a snapshot recording the values checked for each field and the result of each assertion.
+	 * On the next runs with the same snapshot, a field is only checked again if its actual or expected value changed since then :
+	 * references are compared by identity and primitive values by value. The snapshot can be shared by the successive builders
+	 * of a same test, for example to assert an object after every step of a state machine.
+	 * Objects mutated in place keep the same identity, so their changes are not detected : use it with immutable field values.
+	 * 
+	 * @param snapshot (FieldSnapshot) the snapshot to read and update, or null to check every field.
+	 * @return this instance of MultiAssertBuilder
+	 */
+	public MultiAssertBuilder setSnapshot(final FieldSnapshot snapshot){
+		this.snapshot = snapshot;
+		return this;
+	}
+
+	/**
+	 * Sets a cache of the results of equals(), so that the comparison between the same two immutable values
+	 * runs only once for all the fields and all the builders sharing the cache.
+	 * 
+	 * @param equalityCache (EqualityCache) the cache to use, or null to always call equals().
+	 * @return this instance of MultiAssertBuilder
+	 */
+	public MultiAssertBuilder setEqualityCache(final EqualityCache equalityCache){
+		this.equalityCache = equalityCache;
+		return this;
+	}
+
+	/**
+	 * Activates the parallel evaluation of the assertions, for objects with many fields whose equals() is expensive.
+	 * The checks of the fields are split between the threads of a pool shared by all the builders, one thread per processor.
+	 * The threshold is a number of checks, not a measured cost : the cost of equals() is only known once it ran,
+	 * so the number of checks is the estimate of the cost of a run. Objects with fewer checks than the threshold are still checked sequentially,
+	 * as the split would cost more than it saves : set a low threshold for fields whose equals() is expensive.
+	 * The logs are reported in the same order as with the sequential evaluation, and if several checks throw, the exception
+	 * of the first one in that order is thrown, whatever the timing of the threads.
+	 * The equals() methods of the asserted values must then be thread-safe.
+	 * 
+	 * @param threshold (int) the minimum number of checks (fields, sub-fields and values) to run them in parallel, 0 to turn it off.
+	 * @return this instance of MultiAssertBuilder
+	 */
+	public MultiAssertBuilder setParallelEvaluation(final int threshold){
+		if(threshold < 0){
+			throw new IllegalArgumentException(NEGATIVE_PARALLEL_THRESHOLD);
+		}
+		this.parallelThreshold = threshold;
+		return this;
+	}
+
+	/**
+	 * Reads all the checked values as one consistent view before checking them, for objects still mutated by other threads.
+	 * The values are read until two successive reads find the same values : references must be identical, primitive values equal.
+	 * A read which throws, for example because a parent of a sub-field is null during an update, is attempted again.
+	 * No lock is taken, so the threads updating the objects are never slowed down.
+	 * 
+	 * @param maxAttempts (int) the maximum number of reads compared to the previous one.
+	 * @return this instance of MultiAssertBuilder
+	 * @throws IllegalStateException : at run time, if no consistent view could be read in maxAttempts attempts.
+	 */
+	public MultiAssertBuilder setConsistentReads(final int maxAttempts){
+		return setConsistentReads(null, maxAttempts);
+	}
+
+	/**
+	 * Reads all the checked values as one consistent view before checking them, for objects still mutated by other threads.
+	 * The values are read between two reads of a stamp field of the Object to test, until the stamp did not change.
+	 * A numeric stamp, including an AtomicLong or an AtomicInteger, follows the sequence lock convention :
+	 * the writers increment it before and after each update, so it is odd while an update is in progress and the read is then attempted again.
+	 * Any other stamp must be replaced by a new instance at each update. The stamp must be volatile, or an atomic :
+	 * the values are read with a fence before the stamp is read again, so the values read are the ones the stamp was published with.
+	 * A read which throws, for example because a parent of a sub-field is null during an update, is attempted again.
+	 * No lock is taken, so the threads updating the objects are never slowed down.
+	 * 
+	 * @param stampField (String) the name of the stamp field, with the dot notation for a sub-field, or null to compare two successive reads.
+	 * @param maxAttempts (int) the maximum number of reads.
+	 * @return this instance of MultiAssertBuilder
+	 * @throws IllegalStateException : at run time, if no consistent view could be read in maxAttempts attempts.
+	 */
+	public MultiAssertBuilder setConsistentReads(final String stampField, final int maxAttempts){
+		if(maxAttempts <= 0){
+			throw new IllegalArgumentException(READ_ATTEMPTS_NOT_POSITIVE);
+		}
+		this.stampField = stampField;
+		this.consistentReadAttempts = maxAttempts;
+		return this;
+	}
+
+	/**
+	 * Sends the logs of the assertions that went wrong to a store, which keeps only a sample of them in memory
+	 * with the number of errors per field and assertion type, and writes all of them to its spill file.
+	 * At the end of the assertions, the summary of the store is printed instead of every log.
+	 * 
+	 * @param store (FailureStore) the store, or null to keep all the logs in memory.
+	 * @return this instance of MultiAssertBuilder
+	 */
+	public MultiAssertBuilder setFailureStore(final FailureStore store){
+		return setFailureStore(store, null);
+	}
+
+	/**
+	 * Sends the logs of the assertions that went wrong to a store, with a prefix. Used by the runners to identify the pair of objects.
+	 * 
+	 * @param store (FailureStore) the store, or null to keep all the logs in memory.
+	 * @param messagePrefix (String) the prefix added to each log, or null.
+	 * @return this instance of MultiAssertBuilder
+	 */
+	MultiAssertBuilder setFailureStore(final FailureStore store, final String messagePrefix){
+		report.setStore(store, messagePrefix);
+		return this;
+	}
+
+	/**
+	 * Retrieves the store receiving the logs of the assertions that went wrong. Null if they are kept in memory.
+	 */
+	FailureStore getFailureStore(){
+		return report.getStore();
+	}
+
+	/**
+	 * Retrieves the number of assertions that went wrong in the last run, including the ones sent to a FailureStore.
+	 */
+	int getKOCount(){
+		return report.getKOCount();
+	}
+
+	/**
+	 * Sets the limits of the rendering of the values in the logs. A value is rendered at most once, when its log is reported :
+	 * the logs of the successful assertions are never rendered out of the verbose mode.
+	 * The arrays, collections and maps are rendered element by element, the other objects field by field, and an object already being rendered
+	 * is shown as (cycle). Only the values of the JDK types are rendered with toString().
+	 * By default, 1000 characters, 100 elements or fields per value and 3 levels of nested values.
+	 * 
+	 * @param maxLength (int) the maximum number of characters of a rendered value, after which it is truncated.
+	 * @param maxElements (int) the maximum number of elements rendered per array, collection or map, and of fields per object.
+	 * @param maxDepth (int) the maximum number of nested arrays, collections, maps or objects rendered.
+	 * @return this instance of MultiAssertBuilder
+	 */
+	public MultiAssertBuilder setRenderLimits(final int maxLength, final int maxElements, final int maxDepth){
+		if((maxLength <= 0) || (maxElements <= 0) || (maxDepth <= 0)){
+			throw new IllegalArgumentException(RENDER_LIMITS_NOT_POSITIVE);
+		}
+		this.renderer = new ValueRenderer(maxLength, maxElements, maxDepth);
+		return this;
+	}
+
+	/**
+	 * Sets all the fields recorded in a golden file for a key to be asserted as equal to their recorded values.
+	 * It replaces the 'expected' Object, which can be null in the constructor call.
+	 * 
+	 * @param goldenFile (GoldenFile) the golden file containing the recorded values.
+	 * @param key (String) the key under which the values were recorded.
+	 * @return this instance of MultiAssertBuilder
+	 * @throws IllegalArgumentException : if nothing was recorded for the key.
+	 */
+	public MultiAssertBuilder setAssertGoldenValues(final GoldenFile goldenFile, final String key){
+		for (final Entry<String, Object> goldenValue : goldenFile.getValues(key).entrySet()) {
+			setAssertValue(goldenValue.getKey(), goldenValue.getValue(), true);
+		}
+		return this;
+	}
+
 	/**
 	 * Helps filling all the fields of this class, separating dot notation parameters from classic ones.
 	 * 
@@ -341,151 +920,371 @@ public class MultiAssertBuilder{
 
 	/**
 	 * Executes all the assertions as asked by the user and prints all the necessary logs in the output. Constants will be ignored.
+	 * 
+	 * @throws AssertionError : if at least one assertion went wrong.
 	 */
 	public void runAssertions(){
+		evaluateAssertions();
+		printEndLog();
+	}
+
+	/**
+	 * Executes all the assertions as asked by the user without printing the end log nor throwing any AssertionError.
+	 * Used by the runners that aggregate the results of many builders.
+	 * 
+	 * @return (List<String>) the messages of the assertions that went wrong, if any. Empty if they were sent to a FailureStore :
+	 * see {@link #getKOCount() getKOCount()}.
+	 */
+	List<String> evaluateAssertions(){
+		final AssertionRecorder registeredRecorder = recorder;
+		final AssertionRecorder runRecorder = ((registeredRecorder!=null) && registeredRecorder.isEnabled()) ? registeredRecorder : null;
+		final long slowCheckThreshold = (runRecorder!=null) ? runRecorder.getSlowCheckThreshold() : Long.MAX_VALUE;
+		final AssertionRecorder slowCheckRecorder = (slowCheckThreshold!=Long.MAX_VALUE) ? runRecorder : null;
+		final long resolveStart = (runRecorder!=null) ? System.nanoTime() : 0;
 		printStartLogs();
-		OKMessages.clear();
-		KOMessages.clear();
+		report.clear();
 		final List<Field> actualFields = retrieveFieldList(examinedClass);
 		checkSpecifiedFields(actualFields);
+		if(FieldCoverage.isEnabled()){
+			FieldCoverage.registerFields(examinedClass, actualFields);
+		}
+		final List<FieldCheck> checks = resolveChecks(actualFields);
+		if(consistentReadAttempts>0){
+			readConsistentValues(checks);
+		}
+		final long checkStart = (runRecorder!=null) ? System.nanoTime() : 0;
+		if((parallelThreshold>0) && (checks.size()>=parallelThreshold)){
+			runChecksInParallel(checks, slowCheckRecorder, slowCheckThreshold);
+		}else{
+			for (final FieldCheck check : checks) {
+				check.run(slowCheckRecorder, slowCheckThreshold);
+			}
+		}
+		final long reportStart = (runRecorder!=null) ? System.nanoTime() : 0;
+		for (final FieldCheck check : checks) {
+			if(!check.passed){
+				report.logKOMessage(check.fieldName, check.assertionType, check.getMessage());
+			}else if(verbose){
+				report.logOKMessage(check.getMessage());
+			}
+		}
+		if(runRecorder!=null){
+			final long reportEnd = System.nanoTime();
+			runRecorder.recordRun(new AssertionRunEvent(examinedClass, actualFields.size(), checks.size(), report.getKOCount(),
+					checkStart - resolveStart, reportStart - checkStart, reportEnd - reportStart));
+		}
+		return report.getKOMessages();
+	}
+
+	/**
+	 * Resolves all the assertions asked by the user into the list of checks to run, in the order their results are reported.
+	 * 
+	 * @param actualFields (List<Field>) the list of fields in the type being tested.
+	 * @return (List<FieldCheck>) the checks to run.
+	 */
+	private List<FieldCheck> resolveChecks(final List<Field> actualFields) {
+		final List<FieldCheck> checks = new ArrayList<FieldCheck>();
 		for (final Field field : actualFields) {
 			final String fieldName = field.getName();
 			if(assertEqualSubFields.containsKey(fieldName)){
-				assertSubFields(field, assertEqualSubFields.get(fieldName), AssertionType.EQUALS);
+				addSubFieldChecks(checks, field, assertEqualSubFields.get(fieldName), AssertionType.EQUALS);
 			}
 			if(assertNotEqualSubFields.containsKey(fieldName)){
-				assertSubFields(field, assertNotEqualSubFields.get(fieldName), AssertionType.NOT_EQUALS);
+				addSubFieldChecks(checks, field, assertNotEqualSubFields.get(fieldName), AssertionType.NOT_EQUALS);
 			}
 			if(assertNullSubFields.containsKey(fieldName)){
-				assertSubFields(field, assertNullSubFields.get(fieldName), AssertionType.NULL);
+				addSubFieldChecks(checks, field, assertNullSubFields.get(fieldName), AssertionType.NULL);
 			}
 			if(assertNotNullSubFields.containsKey(fieldName)){
-				assertSubFields(field, assertNotNullSubFields.get(fieldName), AssertionType.NOT_NULL);
+				addSubFieldChecks(checks, field, assertNotNullSubFields.get(fieldName), AssertionType.NOT_NULL);
 			}
 			if(assertNullFields.contains(fieldName)){
-				assertField(field, AssertionType.NULL);
+				checks.add(new FieldCheck(fieldName, AssertionType.NULL, field, null));
 			}
 			if(assertNotNullFields.contains(fieldName)){
-				assertField(field, AssertionType.NOT_NULL);
+				checks.add(new FieldCheck(fieldName, AssertionType.NOT_NULL, field, null));
 			}
 			if(assertNotEqualFields.contains(fieldName)){
-				assertField(field, AssertionType.NOT_EQUALS);
+				checks.add(new FieldCheck(fieldName, AssertionType.NOT_EQUALS, field, null));
 			}
 			if(assertEqualFields.contains(fieldName)){
-				assertField(field, AssertionType.EQUALS);
+				checks.add(new FieldCheck(fieldName, AssertionType.EQUALS, field, null));
 			}
 		}
 		for (final Entry<String, Object> assertPair : assertEqualsValueFields.entrySet()) {
-			assertFieldToValue(actualFields, assertPair.getKey(), assertPair.getValue(), AssertionType.EQUALS);
+			checks.add(newValueCheck(assertPair.getKey(), AssertionType.EQUALS, assertPair.getValue(), actualFields));
 		}
 		for (final Entry<String, Object> assertPair : assertNotEqualsValueFields.entrySet()) {
-			assertFieldToValue(actualFields, assertPair.getKey(), assertPair.getValue(), AssertionType.NOT_EQUALS);
+			checks.add(newValueCheck(assertPair.getKey(), AssertionType.NOT_EQUALS, assertPair.getValue(), actualFields));
 		}
-		printEndLog();
+		return checks;
+	}
+
+	/**
+	 * Creates the check of a field or a sub-field against a value, with its Field resolved once.
+	 * The field name was already validated by {@link #checkSpecifiedFields(List) checkSpecifiedFields()}.
+	 * 
+	 * @param fieldName (String) the name of the field, with the dot notation for sub-fields.
+	 * @param assertionType (AssertionType) : the type of assertion to use.
+	 * @param value (Object) the value to be tested against.
+	 * @param actualFields (List<Field>) the list of fields in the type being tested.
+	 * @return (FieldCheck) the check.
+	 */
+	private FieldCheck newValueCheck(final String fieldName, final AssertionType assertionType, final Object value, final List<Field> actualFields) {
+		final String[] splitResult = fieldName.split(ESCAPED_DOT);
+		final String subFieldName = (splitResult.length==2) ? splitResult[1] : null;
+		return new FieldCheck(fieldName, assertionType, findField(splitResult[0], actualFields), subFieldName, value);
+	}
+
+	/**
+	 * Adds the checks of a list of sub-fields for a certain assertion type, under a main field.
+	 * 
+	 * @param checks (List<FieldCheck>) the checks to fill.
+	 * @param field (Field) : the field containing the sub-fields.
+	 * @param subFieldNames (List<String>) : the names of the sub-fields to assert.
+	 * @param assertionType (AssertionType) : the type of assertion to use.
+	 */
+	private void addSubFieldChecks(final List<FieldCheck> checks, final Field field, final List<String> subFieldNames, final AssertionType assertionType) {
+		for (final String subFieldName : subFieldNames) {
+			checks.add(new FieldCheck(buildComposedFieldName(subFieldName, field.getName()), assertionType, field, subFieldName));
+		}
+	}
+
+	/**
+	 * Reads the values of all the checks until they form a consistent view, with a stamp field or by comparing two successive reads.
+	 * 
+	 * @param checks (List<FieldCheck>) the checks whose values are read.
+	 * @throws IllegalStateException : if no consistent view could be read in the maximum number of attempts.
+	 * The exception of the last read is thrown instead if it failed.
+	 */
+	private void readConsistentValues(final List<FieldCheck> checks) {
+		Object[] previousValues = null;
+		for (int attempt = 0; attempt < consistentReadAttempts; attempt++) {
+			final boolean lastAttempt = (attempt == (consistentReadAttempts - 1));
+			if(stampField!=null){
+				final Object stampBefore = readStamp();
+				if((readValues(checks, lastAttempt) != null) && isStableStamp(stampBefore, readStamp())){
+					return;
+				}
+			}else{
+				if(previousValues==null){
+					previousValues = readValues(checks, lastAttempt);
+				}
+				final Object[] values = (previousValues != null) ? readValues(checks, lastAttempt) : null;
+				if((values != null) && areSameValues(previousValues, values)){
+					return;
+				}
+				previousValues = values;
+			}
+			Thread.yield();
+		}
+		throw new IllegalStateException(String.format(INCONSISTENT_READS, examinedClass.getName(), consistentReadAttempts));
+	}
+
+	/**
+	 * Reads the values of all the checks, followed by a fence.
+	 * 
+	 * @param checks (List<FieldCheck>) the checks whose values are read.
+	 * @param lastAttempt (boolean) true to throw the exception of a read which failed, false to ignore it.
+	 * @return (Object[]) the actual and expected values read, two per check, or null if a read failed.
+	 */
+	private static Object[] readValues(final List<FieldCheck> checks, final boolean lastAttempt) {
+		final Object[] values = new Object[checks.size() * 2];
+		try{
+			for (int i = 0; i < checks.size(); i++) {
+				final FieldCheck check = checks.get(i);
+				check.readValues();
+				values[2 * i] = check.actualValue;
+				values[(2 * i) + 1] = check.expectedValue;
+			}
+		}catch(final RuntimeException re){
+			if(lastAttempt){
+				throw re;
+			}
+			return null;
+		}finally{
+			readFence = 0;
+		}
+		return values;
+	}
+
+	/**
+	 * Determines if two successive reads found the same values.
+	 */
+	private static boolean areSameValues(final Object[] previousValues, final Object[] values) {
+		for (int i = 0; i < values.length; i++) {
+			if(!FieldSnapshot.isSameValue(previousValues[i], values[i])){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the stamp field. A numeric stamp is read as a Long, so the value of an atomic is read now and not when compared.
+	 */
+	private Object readStamp() {
+		final Object stamp = getFieldValue(stampField);
+		if(stamp instanceof Number){
+			return Long.valueOf(((Number) stamp).longValue());
+		}
+		return stamp;
+	}
+
+	/**
+	 * Determines if the stamp did not change during a read, and if no update was in progress for a numeric stamp.
+	 */
+	private static boolean isStableStamp(final Object stampBefore, final Object stampAfter) {
+		if((stampBefore instanceof Long) && (stampAfter instanceof Long)){
+			final long before = ((Long) stampBefore).longValue();
+			return (before == ((Long) stampAfter).longValue()) && ((before % 2) == 0);
+		}
+		return stampBefore == stampAfter;
 	}
 
 	/**
-	 * Asserts a field against a value for a certain type of assertion.
+	 * Runs the checks on the shared pool. They are split in as many interleaved parts as there are threads,
+	 * the first part running in the calling thread. The results stay in the checks, so they are reported in the usual order.
+	 * Each part runs its checks in order and stops at the first one which throws : the check with the lowest index which throws
+	 * is the first one which throws in the sequential evaluation, and its exception is the one thrown.
+	 * 
+	 * @param checks (List<FieldCheck>) the checks to run.
+	 * @param slowCheckRecorder (AssertionRecorder) the recorder of the slow checks, or null if the checks are not timed.
+	 * @param slowCheckThreshold (long) the duration from which a check is recorded, in nanoseconds.
+	 */
+	private void runChecksInParallel(final List<FieldCheck> checks, final AssertionRecorder slowCheckRecorder, final long slowCheckThreshold) {
+		final int partCount = Math.min(AssertionExecutors.getSharedPoolSize(), checks.size());
+		final List<ChecksPart> parts = new ArrayList<ChecksPart>();
+		final List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int part = 0; part < partCount; part++) {
+			parts.add(new ChecksPart(checks, part, partCount, slowCheckRecorder, slowCheckThreshold));
+		}
+		for (int part = 1; part < partCount; part++) {
+			futures.add(AssertionExecutors.getSharedPool().submit(parts.get(part)));
+		}
+		parts.get(0).run();
+		for (final Future<?> future : futures) {
+			try{
+				future.get();
+			}catch(final InterruptedException ie){
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(INTERRUPTED, ie);
+			}catch(final ExecutionException ee){
+				throw new IllegalStateException(ee.getCause());
+			}
+		}
+		ChecksPart failedPart = null;
+		for (final ChecksPart part : parts) {
+			if((part.failure != null) && ((failedPart == null) || (part.failedIndex < failedPart.failedIndex))){
+				failedPart = part;
+			}
+		}
+		if(failedPart != null){
+			if(failedPart.failure instanceof Error){
+				throw (Error) failedPart.failure;
+			}
+			throw (RuntimeException) failedPart.failure;
+		}
+	}
+
+	/**
+	 * Reads the value of a field or a sub-field of the Object to test.
+	 * 
+	 * @param fieldName (String) the name of the field, with the dot notation for sub-fields.
+	 * @return (Object) the value of the field.
+	 * @throws IllegalArgumentException : if the field or the sub-field does not exist.
+	 */
+	Object getFieldValue(final String fieldName){
+		final List<Field> actualFields = retrieveFieldList(examinedClass);
+		if(findField(fieldName.split(ESCAPED_DOT)[0], actualFields)==null){
+			throw new IllegalArgumentException(String.format(THE_FIELD_DOES_NOT_EXIST_IN_THE_TYPE, fieldName, examinedClass.getName()));
+		}
+		return readFieldValue(actualFields, fieldName);
+	}
+
+	/**
+	 * Reads the value of a field or a sub-field of the Object to test.
 	 * 
 	 * @param actualFields (List<Field>) the list of fields in the type being tested.
-	 * @param fieldName (String) the name of the field being tested.
-	 * @param expectedValue (Object) the value for the field to be tested against.
-	 * @param assertionType (AssertionType) The type of assertion to use.
+	 * @param fieldName (String) the name of the field, with the dot notation for sub-fields.
+	 * @return (Object) the value of the field.
 	 */
-	private void assertFieldToValue(final List<Field> actualFields, final String fieldName, final Object expectedValue, final AssertionType assertionType) {
-		Object actualValue = null;
-		Field field = null;
+	private Object readFieldValue(final List<Field> actualFields, final String fieldName) {
 		final String[] splitResult = fieldName.split(ESCAPED_DOT);
 		try{
 			if(splitResult.length==2){
-				field = findField(splitResult[0], actualFields);
-				actualValue = getSubFieldValue(splitResult[1], field, actual);
+				return getSubFieldValue(splitResult[1], findField(splitResult[0], actualFields), actual);
 			}else if(splitResult.length==1){
-				field = findField(splitResult[0], actualFields);
-				actualValue = field.get(actual);
+				return findField(splitResult[0], actualFields).get(actual);
 			}else{
 				throw new IllegalArgumentException(String.format(INCORRECT_FORMAT, fieldName));
 			}
-			doCoreAssertion(assertionType, actualValue, expectedValue);
-			logOKMessage(String.format(assertionType.getSuccessMessage(), fieldName, actualValue, expectedValue));
-		} catch (final AssertionError ae){
-			KOMessages.add(String.format(assertionType.getErrorMessage(), fieldName, getStringValue(actualValue), getStringValue(expectedValue)));
 		} catch (final IllegalAccessException e) {
 			throw new RuntimeException(String.format(UNKNOWN_ERROR, fieldName));
 		}
 	}
 
 	/**
-	 * Asserts a single field for a certain assertion type.
+	 * Checks two values for the assertion type of a check and keeps the result in the check.
+	 * If a snapshot is set and both values are the same as the last time this field was checked, the previous result is reused.
+	 * The log of the check is only rendered when it is reported.
 	 * 
-	 * @param field (Field) : the field to assert.
-	 * @param assertionType (AssertionType) : the assertion type to use.
+	 * @param check (FieldCheck) the check being run.
+	 * @param actualValue (Object) the value to test.
+	 * @param expectedValue (Object) the value to be tested against.
 	 */
-	private void assertField(final Field field, final AssertionType assertionType) {
-		Object actualValue = null;
-		Object expectedValue = null;
-		String fieldName = null;
-		try{
-			fieldName = field.getName();
-			actualValue = field.get(actual);
-			expectedValue = field.get(expected);
-			doCoreAssertion(assertionType, actualValue, expectedValue);
-			logOKMessage(String.format(assertionType.getSuccessMessage(), fieldName, actualValue, expectedValue));
-		} catch (final AssertionError ae){
-			KOMessages.add(String.format(assertionType.getErrorMessage(), fieldName, getStringValue(actualValue), getStringValue(expectedValue)));
-		} catch (final IllegalAccessException iae){
-			throw new RuntimeException(String.format(UNKNOWN_ERROR, fieldName));
+	private void checkValues(final FieldCheck check, final Object actualValue, final Object expectedValue) {
+		final String fieldName = check.fieldName;
+		final AssertionType assertionType = check.assertionType;
+		check.actualValue = actualValue;
+		check.expectedValue = expectedValue;
+		if(snapshot!=null){
+			final FieldSnapshot.Result result = snapshot.findUnchangedResult(assertionType.name(), fieldName, actualValue, expectedValue);
+			if(result!=null){
+				check.passed = result.isPassed();
+				return;
+			}
+		}
+		check.passed = doCoreAssertion(assertionType, actualValue, expectedValue);
+		if(snapshot!=null){
+			snapshot.putResult(assertionType.name(), fieldName, new FieldSnapshot.Result(actualValue, expectedValue, check.passed));
 		}
 	}
 	
 	/**
-	 * Performs a simple asertion between two objects.
+	 * Performs a simple assertion between two objects, with the same rules as the assertions of JUnit,
+	 * but without rendering the values in an AssertionError.
 	 * 
 	 * @param assertionType (AssertionType) The type of assertion to perform.
 	 * @param actualValue (Object) The object which contains the value to test.
 	 * @param expectedValue (Object) The object which contains the value to be tested against.
+	 * @return (boolean) true if the assertion went well.
 	 */
-	private void doCoreAssertion(final AssertionType assertionType, final Object actualValue, final Object expectedValue) {
+	private boolean doCoreAssertion(final AssertionType assertionType, final Object actualValue, final Object expectedValue) {
 		switch(assertionType){
 			case EQUALS :
-				Assert.assertEquals(actualValue, expectedValue);
-				break;
+				return areEqual(actualValue, expectedValue);
 			case NOT_EQUALS:
-				Assert.assertNotEquals(actualValue, expectedValue);
-				break;
+				return !areEqual(actualValue, expectedValue);
 			case NOT_NULL:
-				Assert.assertNotNull(actualValue);
-				break;
+				return actualValue!=null;
 			case NULL:
-				Assert.assertNull(actualValue);
-				break;
+				return actualValue==null;
 		}
+		return false;
 	}
 
 	/**
-	 * Asserts a list of sub-field for a certain assertion type, under a main field.
-	 * 
-	 * @param field (Field) : the field to be asserted.
-	 * @param subFieldsToAssertEquals (List<String>) : the list of fields to assert.
-	 * @param assertionType (List<String>) : the type of assertion to use.
+	 * Compares two values with actualValue.equals(expectedValue), through the equality cache if the values can use it.
 	 */
-	private void assertSubFields(final Field field, final List<String> subFieldsToAssertEquals, final AssertionType assertionType) {
-		for (final String subFieldName : subFieldsToAssertEquals) {
-			final String fieldName = field.getName();
-			final String composedFieldName = buildComposedFieldName(subFieldName, fieldName);
-			Object actualValue = null;
-			Object expectedValue = null;
-			try{
-				actualValue = getSubFieldValue(subFieldName, field, actual);
-				expectedValue = getSubFieldValue(subFieldName, field, expected);
-				doCoreAssertion(assertionType, actualValue, expectedValue);
-				logOKMessage(String.format(assertionType.getSuccessMessage(), composedFieldName, actualValue, expectedValue));
-			} catch (final AssertionError ae){
-				KOMessages.add(String.format(assertionType.getErrorMessage(), composedFieldName, getStringValue(actualValue), getStringValue(expectedValue)));
-			} catch (final IllegalAccessException e) {
-				throw new RuntimeException(String.format(UNKNOWN_ERROR, fieldName));
-			}
+	private boolean areEqual(final Object actualValue, final Object expectedValue) {
+		if(actualValue==null){
+			return expectedValue==null;
 		}
+		if((equalityCache!=null) && equalityCache.isCacheable(actualValue, expectedValue)){
+			return equalityCache.areEqual(actualValue, expectedValue);
+		}
+		return actualValue.equals(expectedValue);
 	}
 
 	/**
@@ -569,20 +1368,47 @@ public class MultiAssertBuilder{
 	private Object getSubFieldValue(final String subFieldName, final Field field, final Object source) throws IllegalAccessException {
 		Object returnValue = null;
 		if((subFieldName!=null) && (subFieldName.length()>0) && (field!=null) && (source!=null)){
-			final Object subObject = field.get(source);
-			if(subObject==null){
-				throw new NullPointerException(String.format(FIELD_VALUE_CANNOT_BE_NULL_TO_FETCH_SUB_FIELD, field.getName(), subFieldName));
-			}
-			final List<Field> subFieldtempList = retrieveFieldList(subObject.getClass());
-			final Field subField = findField(subFieldName, subFieldtempList);
-			if(subField==null){
-				throw new IllegalArgumentException(String.format(THE_SUB_FIELD_DOES_NOT_EXIST, subFieldName, field.getName()));
-			}
-			returnValue = subField.get(subObject);
+			final Object subObject = getSubObject(subFieldName, field, source);
+			returnValue = findSubField(subFieldName, field, subObject).get(subObject);
 		}
 		return returnValue;
 	}
 
+	/**
+	 * Fetches the object containing a sub-field.
+	 * 
+	 * @param subFieldName (String) : the name of the sub-field.
+	 * @param field (Field) : the field containing the sub-field.
+	 * @param source (Object) : the source object.
+	 * @return (Object) : the value of the field, never null.
+	 * @throws IllegalAccessException see the {@link java.lang.reflect.Field#get(Object) Field.get()} method.
+	 * @throws NullPointerException : if the value of the field is null.
+	 */
+	private Object getSubObject(final String subFieldName, final Field field, final Object source) throws IllegalAccessException {
+		final Object subObject = field.get(source);
+		if(subObject==null){
+			throw new NullPointerException(String.format(FIELD_VALUE_CANNOT_BE_NULL_TO_FETCH_SUB_FIELD, field.getName(), subFieldName));
+		}
+		return subObject;
+	}
+
+	/**
+	 * Finds the Field of a sub-field in the class of the object containing it.
+	 * 
+	 * @param subFieldName (String) : the name of the sub-field.
+	 * @param field (Field) : the field containing the sub-field.
+	 * @param subObject (Object) : the value of the field.
+	 * @return (Field) : the Field of the sub-field.
+	 * @throws IllegalArgumentException : if the sub-field does not exist.
+	 */
+	private Field findSubField(final String subFieldName, final Field field, final Object subObject) {
+		final Field subField = findField(subFieldName, retrieveFieldList(subObject.getClass()));
+		if(subField==null){
+			throw new IllegalArgumentException(String.format(THE_SUB_FIELD_DOES_NOT_EXIST, subFieldName, field.getName()));
+		}
+		return subField;
+	}
+
 	/**
 	 * Finds a Field in a List<Field> by the fieldName.
 	 * 
@@ -603,31 +1429,6 @@ public class MultiAssertBuilder{
 		return returnValue;
 	}
 
-	/**
-	 * Logs a message. To be used when an assertion is successful.
-	 */
-	private void logOKMessage(final String message) {
-		if(verbose){
-			System.out.println(message);
-		}
-		OKMessages.add(message);
-	}
-
-	/**
-	 * This method tries to get the best readable value for the object source.
-	 */
-	private String getStringValue(final Object source) {
-		String returnValue = null;
-		if(source!=null){
-			if (source instanceof Enum<?>){
-				returnValue = ((Enum<?>)source).name();
-			} else {
-				returnValue = source.toString();
-			}
-		}
-		return returnValue;
-	}
-
 	/**
 	 * Prints the logs at the start of the assertions.
 	 */
@@ -644,19 +1445,11 @@ public class MultiAssertBuilder{
 		endTime = System.nanoTime();
 		long elapsedTime = endTime - startTime;
 		double durationInSeconds = (double) elapsedTime / 1000000.0f;
-		final int KOSize = KOMessages.size();
+		final int KOSize = report.getKOCount();
 		if(KOSize>0){
-			for (final String message : KOMessages) {
-				System.out.println(message);
-			}
-			if(verbose){
-				System.out.println(String.format(EXECUTE_OUT_MSG_ERROR_MAIN, examinedClass.getName(), KOSize, durationInSeconds));
-				System.out.println();
-			}
-			throw new AssertionError(String.format(MAIN_ASSERTION_ERROR_MESSAGE, KOSize));
-		} else if(verbose){
-			System.out.println(String.format(EXECUTE_OUT_SUCCESS, examinedClass.getName(), durationInSeconds));
-			System.out.println();
+			report.printEndLog(String.format(EXECUTE_OUT_MSG_ERROR_MAIN, examinedClass.getName(), KOSize, durationInSeconds));
+		} else {
+			report.printEndLog(String.format(EXECUTE_OUT_SUCCESS, examinedClass.getName(), durationInSeconds));
 		}
 	}
 
@@ -687,22 +1480,18 @@ public class MultiAssertBuilder{
 	
 	/**
 	 * Retrieves the list of Fields available for a certain type. 
-	 * If the fields have been already fetched, they will be retrieved from the map typeToFieldsListMap.
+	 * If the fields have been already fetched, they will be retrieved from the cache TYPE_TO_FIELDS_LIST_CACHE.
 	 * Otherwise, they will be retrieved with the method {@link #getAllFields(List, Class) getAllFields()}.
 	 * 
 	 * @param (Class<?>) the type to retrieve the fields from.
 	 * @return (List<Field>) the list of fields of the specified type.
 	 */
-	private List<Field> retrieveFieldList(final Class<?> type){
-		List<Field> fieldList = null;
-		final String typeName = type.getName();
-		if(typeToFieldsListMap.containsKey(typeName)){
-			fieldList = typeToFieldsListMap.get(type.getName());
-		}else{
-			fieldList = getAllFields(new ArrayList<Field>(), type);
-			typeToFieldsListMap.put(typeName, fieldList);
+	static List<Field> retrieveFieldList(final Class<?> type){
+		final List<Field> fieldList = TYPE_TO_FIELDS_LIST_CACHE.get(type);
+		if(fieldList != null){
+			return fieldList;
 		}
-		return fieldList;
+		return TYPE_TO_FIELDS_LIST_CACHE.putIfAbsent(type, Collections.unmodifiableList(getAllFields(new ArrayList<Field>(), type)));
 	}
 
 	/**
@@ -714,7 +1503,7 @@ public class MultiAssertBuilder{
 	 * @param type (Class<?>) : the class type to retrieve fields from.
 	 * @return (List<Field>) : the 'fields' parameter that was passed but now containing the results, if any.
 	 */
-	private List<Field> getAllFields(List<Field> fields, final Class<?> type) {
+	private static List<Field> getAllFields(List<Field> fields, final Class<?> type) {
 		final Field[] declaredFields = type.getDeclaredFields();
 		for (int i = 0; i < declaredFields.length; i++) {
 			final Field field = declaredFields[i];
@@ -0,0 +1,162 @@
+package com.lma.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * PackageScanner lists the names of the classes of a package and of its sub-packages, from the directories and the jar files of the class path.
+ * The classes are only listed, never loaded.
+ * A jar file is not always built with an entry for each directory, so the jar files reachable from the class loader are all searched,
+ * by the names of their entries, and not only the ones where the class loader finds the package.
+ * The jar files of the java.class.path property are only searched when the system class loader is the class loader or one of its parents.
+ */
+final class PackageScanner {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String PACKAGE_NOT_FOUND = "The package '%s' was not found in the class path.";
+	private static final String PACKAGE_NOT_READABLE = "The package '%s' could not be read from the class path.";
+	private static final String CLASS_SUFFIX = ".class";
+	private static final String PACKAGE_INFO = "package-info";
+	private static final String JAR_SUFFIX = ".jar";
+	private static final String JAR_PROTOCOL = "jar";
+	private static final String FILE_PROTOCOL = "file";
+	private static final String CLASS_PATH = "java.class.path";
+	private static final String UTF_8 = "UTF-8";
+
+	private PackageScanner(){
+	}
+
+	/**
+	 * Lists the names of the classes of a package and of its sub-packages.
+	 *
+	 * @param packageName (String) the name of the package, like com.company.model.
+	 * @param classLoader (ClassLoader) the class loader to read the class path from.
+	 * @return (List<String>) the fully qualified names of the classes.
+	 * @throws IllegalArgumentException : if the package is not in the class path.
+	 * @throws IllegalStateException : if the class path could not be read.
+	 */
+	static List<String> findClassNames(final String packageName, final ClassLoader classLoader){
+		final String packagePath = packageName.replace('.', '/');
+		final List<String> classNames = new ArrayList<String>();
+		final Set<File> jarFiles = new LinkedHashSet<File>();
+		boolean found = false;
+		try{
+			final Enumeration<URL> resources = classLoader.getResources(packagePath);
+			while(resources.hasMoreElements()){
+				final URL resource = resources.nextElement();
+				if(JAR_PROTOCOL.equals(resource.getProtocol())){
+					jarFiles.add(toFile(((JarURLConnection) resource.openConnection()).getJarFileURL()));
+				}else{
+					found = true;
+					addDirectoryClassNames(classNames, toFile(resource), packageName);
+				}
+			}
+			addClassPathJarFiles(jarFiles, classLoader);
+			for (final File jarFile : jarFiles) {
+				found |= addJarClassNames(classNames, jarFile, packagePath + '/');
+			}
+		}catch(final UnsupportedEncodingException uee){
+			throw new IllegalStateException(String.format(PACKAGE_NOT_READABLE, packageName), uee);
+		}catch(final IOException ioe){
+			throw new IllegalStateException(String.format(PACKAGE_NOT_READABLE, packageName), ioe);
+		}
+		if(!found){
+			throw new IllegalArgumentException(String.format(PACKAGE_NOT_FOUND, packageName));
+		}
+		return classNames;
+	}
+
+	/**
+	 * Adds the names of the classes of a directory and of its sub-directories.
+	 */
+	private static void addDirectoryClassNames(final List<String> classNames, final File directory, final String packageName){
+		final File[] files = directory.listFiles();
+		if(files == null){
+			return;
+		}
+		for (final File file : files) {
+			final String fileName = file.getName();
+			if(file.isDirectory()){
+				addDirectoryClassNames(classNames, file, packageName + '.' + fileName);
+			}else if(fileName.endsWith(CLASS_SUFFIX) && !fileName.startsWith(PACKAGE_INFO)){
+				classNames.add(packageName + '.' + fileName.substring(0, fileName.length() - CLASS_SUFFIX.length()));
+			}
+		}
+	}
+
+	/**
+	 * Adds the names of the classes of a jar file whose entry names start with a package path. The jar file is closed afterwards.
+	 *
+	 * @return (boolean) true if the jar file contains an entry under the package path.
+	 */
+	private static boolean addJarClassNames(final List<String> classNames, final File file, final String packagePrefix) throws IOException {
+		if(!file.isFile()){
+			return false;
+		}
+		boolean found = false;
+		final JarFile jarFile = new JarFile(file);
+		try{
+			final Enumeration<JarEntry> entries = jarFile.entries();
+			while(entries.hasMoreElements()){
+				final String entryName = entries.nextElement().getName();
+				if(entryName.startsWith(packagePrefix)){
+					found = true;
+					if(entryName.endsWith(CLASS_SUFFIX) && !entryName.endsWith(PACKAGE_INFO + CLASS_SUFFIX)){
+						classNames.add(entryName.substring(0, entryName.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+					}
+				}
+			}
+		}finally{
+			jarFile.close();
+		}
+		return found;
+	}
+
+	/**
+	 * Adds the jar files reachable from the class loader : the ones of the URL class loaders of its hierarchy,
+	 * and the ones of the java.class.path property if the system class loader is part of its hierarchy.
+	 */
+	private static void addClassPathJarFiles(final Set<File> jarFiles, final ClassLoader classLoader) throws UnsupportedEncodingException {
+		final ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+		boolean reachesSystemClassLoader = false;
+		for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+			reachesSystemClassLoader |= (loader == systemClassLoader);
+			if(loader instanceof URLClassLoader){
+				for (final URL url : ((URLClassLoader) loader).getURLs()) {
+					if(FILE_PROTOCOL.equals(url.getProtocol()) && url.getPath().endsWith(JAR_SUFFIX)){
+						jarFiles.add(toFile(url));
+					}
+				}
+			}
+		}
+		final String classPath = System.getProperty(CLASS_PATH);
+		if(reachesSystemClassLoader && (classPath != null)){
+			for (final String entry : classPath.split(File.pathSeparator)) {
+				if(entry.endsWith(JAR_SUFFIX)){
+					jarFiles.add(new File(entry).getAbsoluteFile());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Converts a file URL to a File.
+	 */
+	private static File toFile(final URL url) throws UnsupportedEncodingException {
+		return new File(URLDecoder.decode(url.getPath(), UTF_8)).getAbsoluteFile();
+	}
+}
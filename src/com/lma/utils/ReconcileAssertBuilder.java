@@ -0,0 +1,320 @@
+package com.lma.utils;
+
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ReconcileAssertBuilder pairs the records of two collections by the value of a key field, whatever their order,
+ * and runs the same AssertionPlan on each pair of records with the same key.
+ * Both collections are read at the same pace, one record of each at a time, and a record waits in memory only until
+ * its counterpart is read : two collections in about the same order are reconciled without sorting them.
+ * To find the duplicated keys, the key of every matched record is kept until the end : the memory grows with one key per record.
+ * When the keys are known to be unique, {@link #detectingDuplicates(boolean) detectingDuplicates(false)} drops them, and the memory only grows
+ * with the records waiting for their counterpart, that is with how far the two collections are out of order.
+ * The records without a counterpart and the duplicated keys are reported as errors, like the field assertions of MultiAssertBuilder.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code MultiAssertBuilder.reconcile(jobOutput, referenceOutput, "id")
+ * 	.applying(plan)
+ * 	.runAssertions();
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class ReconcileAssertBuilder {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String RECORDS_ARE_NULL_PARAMETER = "'actuals' and 'expecteds' parameters cannot be null.";
+	private static final String KEY_FIELD_IS_NULL_OR_EMPTY = "'keyField' parameter is null or empty.";
+	private static final String RECORD_IS_NULL = "The records cannot be null.";
+	private static final String THE_FIELD_DOES_NOT_EXIST_IN_THE_TYPE = "The field '%s' does not exist in the type '%s'. Check your String parameters.";
+	private static final String THE_SUB_FIELD_DOES_NOT_EXIST = "The sub-field '%s' does not exist in the field '%s'.";
+	private static final String FIELD_VALUE_CANNOT_BE_NULL_TO_FETCH_SUB_FIELD = "The field value '%s' cannot be null to fetch sub-field '%s'.";
+	private static final String INCORRECT_FORMAT = "The sub-field '%s' is incorrectly named. 1 dot '.' is required.";
+	private static final String UNKNOWN_ERROR = "The field named '%s' should have been made accessible. This error is not supposed to happen !";
+	private static final String ESCAPED_DOT = "\\.";
+	private static final String KEY_PREFIX = "[%s=%s] ";
+	private static final String MATCHED_MESSAGE = "OK : the records with %s '%s' are matched.";
+	private static final String MISSING_EXPECTED_MESSAGE = "KO : the actual record with %s '%s' has no expected record.";
+	private static final String MISSING_ACTUAL_MESSAGE = "KO : the expected record with %s '%s' has no actual record.";
+	private static final String DUPLICATE_MESSAGE = "KO : the %s records contain %s '%s' more than once.";
+	private static final String ACTUAL = "actual";
+	private static final String EXPECTED = "expected";
+	private static final String EXECUTE_IN_MSG = "=> MultiAssertBuilder is reconciling two collections of records on '%s'.";
+	private static final String EXECUTE_OUT_SUCCESS = "=> MultiAssertBuilder reconciliation on '%s' of %d pair(s) of records ended successfully with no errors and lasted %.3f milliseconds.";
+	private static final String EXECUTE_OUT_MSG_ERROR_MAIN = "=> MultiAssertBuilder reconciliation on '%s' of %d pair(s) of records ended with %d error(s) and lasted %.3f milliseconds.";
+
+	/**
+	 * The records to test.
+	 */
+	private final Iterable<?> actuals;
+
+	/**
+	 * The records containing the target values.
+	 */
+	private final Iterable<?> expecteds;
+
+	/**
+	 * The name of the field identifying a record, with the dot notation for a sub-field.
+	 */
+	private final String keyField;
+
+	/**
+	 * The key field split on the dot : the field of the record, then the sub-field if any.
+	 */
+	private final String[] keyFieldPath;
+
+	/**
+	 * The class of the last record read, and its Field holding the key. The Field is only resolved again when the class changes.
+	 */
+	private Class<?> recordClass;
+	private Field recordKeyField;
+
+	/**
+	 * The class of the last object holding the key sub-field, and the Field of the sub-field.
+	 */
+	private Class<?> subObjectClass;
+	private Field subObjectKeyField;
+
+	/**
+	 * The plan to apply on each pair of records. Null if only the keys are reconciled.
+	 */
+	private AssertionPlan plan;
+
+	/**
+	 * The store receiving the errors. Null if they are all kept in memory.
+	 */
+	private FailureStore store;
+
+	/**
+	 * Keeps the keys of the matched records to report the duplicated keys. True by default.
+	 */
+	private boolean detectingDuplicates = true;
+
+	/**
+	 * Activates the verbose mode of the reconciliation and of each builder.
+	 */
+	private final boolean verbose;
+
+	/**
+	 * Collection of logs for assertions that went well and wrong.
+	 */
+	private final AssertionReport report;
+
+	/**
+	 * Constructor for a ReconcileAssertBuilder. See {@link MultiAssertBuilder#reconcile(Iterable, Iterable, String) MultiAssertBuilder.reconcile()}.
+	 *
+	 * @param actuals (Iterable<?>) the records to test
+	 * @param expecteds (Iterable<?>) the records containing the target values
+	 * @param keyField (String) the name of the field identifying a record
+	 * @param verbose (boolean) activates the verbose mode (more logs, not only errors)
+	 */
+	ReconcileAssertBuilder(final Iterable<?> actuals, final Iterable<?> expecteds, final String keyField, final boolean verbose){
+		if((actuals == null) || (expecteds == null)){
+			throw new IllegalArgumentException(RECORDS_ARE_NULL_PARAMETER);
+		}
+		if((keyField == null) || (keyField.length() == 0)){
+			throw new IllegalArgumentException(KEY_FIELD_IS_NULL_OR_EMPTY);
+		}
+		this.actuals = actuals;
+		this.expecteds = expecteds;
+		this.keyField = keyField;
+		this.keyFieldPath = keyField.split(ESCAPED_DOT);
+		this.verbose = verbose;
+		this.report = new AssertionReport(verbose);
+	}
+
+	/**
+	 * Sets the assertions to run on each pair of records with the same key. Without a plan, only the keys are reconciled.
+	 *
+	 * @param plan (AssertionPlan) the assertions to run
+	 * @return this instance of ReconcileAssertBuilder
+	 */
+	public ReconcileAssertBuilder applying(final AssertionPlan plan){
+		this.plan = plan;
+		return this;
+	}
+
+	/**
+	 * Sets whether the keys of the matched records are kept until the end, to report the keys read more than once. True by default.
+	 * Without it, a key read again after its record was matched waits for a new counterpart, and is reported as a record without counterpart.
+	 *
+	 * @param detectingDuplicates (boolean) false to keep only the records waiting for their counterpart
+	 * @return this instance of ReconcileAssertBuilder
+	 */
+	public ReconcileAssertBuilder detectingDuplicates(final boolean detectingDuplicates){
+		this.detectingDuplicates = detectingDuplicates;
+		return this;
+	}
+
+	/**
+	 * Sends the errors to a store, which keeps only a sample of them in memory with the number of errors per field and assertion type,
+	 * and writes all of them to its spill file. The errors of the records without a counterpart are counted under the key field.
+	 *
+	 * @param store (FailureStore) the store, or null to keep all the errors in memory
+	 * @return this instance of ReconcileAssertBuilder
+	 */
+	public ReconcileAssertBuilder storingFailures(final FailureStore store){
+		this.store = store;
+		report.setStore(store, null);
+		return this;
+	}
+
+	/**
+	 * Reads both collections, runs the assertions on each pair of records and prints all the necessary logs in the output.
+	 *
+	 * @throws AssertionError : if a record has no counterpart, if a key is duplicated, or if at least one assertion went wrong.
+	 * @throws IllegalArgumentException : if a record is null or if the key field does not exist.
+	 * @throws NullPointerException : if the key is a sub-field and the field holding it is null.
+	 */
+	public void runAssertions(){
+		final long startTime = System.nanoTime();
+		report.clear();
+		if(verbose){
+			System.out.println(String.format(EXECUTE_IN_MSG, keyField));
+		}
+		final Map<Object, Object> pendingActuals = new LinkedHashMap<Object, Object>();
+		final Map<Object, Object> pendingExpecteds = new LinkedHashMap<Object, Object>();
+		final Set<Object> matchedKeys = new HashSet<Object>();
+		int matchedCount = 0;
+		final Iterator<?> actualRecords = actuals.iterator();
+		final Iterator<?> expectedRecords = expecteds.iterator();
+		while(actualRecords.hasNext() || expectedRecords.hasNext()){
+			if(actualRecords.hasNext()){
+				final Object actual = actualRecords.next();
+				final Object key = readKey(actual);
+				if(pendingExpecteds.containsKey(key)){
+					assertPair(key, actual, pendingExpecteds.remove(key), matchedKeys);
+					matchedCount++;
+				}else{
+					addPending(key, actual, pendingActuals, matchedKeys, ACTUAL);
+				}
+			}
+			if(expectedRecords.hasNext()){
+				final Object expected = expectedRecords.next();
+				final Object key = readKey(expected);
+				if(pendingActuals.containsKey(key)){
+					assertPair(key, pendingActuals.remove(key), expected, matchedKeys);
+					matchedCount++;
+				}else{
+					addPending(key, expected, pendingExpecteds, matchedKeys, EXPECTED);
+				}
+			}
+		}
+		for (final Object key : pendingActuals.keySet()) {
+			report.logKOMessage(keyField, null, String.format(MISSING_EXPECTED_MESSAGE, keyField, key));
+		}
+		for (final Object key : pendingExpecteds.keySet()) {
+			report.logKOMessage(keyField, null, String.format(MISSING_ACTUAL_MESSAGE, keyField, key));
+		}
+		final double durationInMilliseconds = (double) (System.nanoTime() - startTime) / 1000000.0f;
+		final int KOSize = report.getKOCount();
+		if(KOSize>0){
+			report.printEndLog(String.format(EXECUTE_OUT_MSG_ERROR_MAIN, keyField, matchedCount, KOSize, durationInMilliseconds));
+		} else {
+			report.printEndLog(String.format(EXECUTE_OUT_SUCCESS, keyField, matchedCount, durationInMilliseconds));
+		}
+	}
+
+	/**
+	 * Keeps a record until its counterpart is read, unless its key was already read on the same side.
+	 */
+	private void addPending(final Object key, final Object record, final Map<Object, Object> pendingRecords, final Set<Object> matchedKeys, final String side){
+		if(pendingRecords.containsKey(key) || matchedKeys.contains(key)){
+			report.logKOMessage(keyField, null, String.format(DUPLICATE_MESSAGE, side, keyField, key));
+		}else{
+			pendingRecords.put(key, record);
+		}
+	}
+
+	/**
+	 * Runs the plan on a pair of records with the same key, and reports its errors with the key.
+	 */
+	private void assertPair(final Object key, final Object actual, final Object expected, final Set<Object> matchedKeys){
+		if(detectingDuplicates){
+			matchedKeys.add(key);
+		}
+		if(plan == null){
+			if(verbose){
+				report.logOKMessage(String.format(MATCHED_MESSAGE, keyField, key));
+			}
+			return;
+		}
+		final String keyPrefix = String.format(KEY_PREFIX, keyField, key);
+		final MultiAssertBuilder builder = plan.configure(new MultiAssertBuilder(actual, expected, verbose));
+		if(store != null){
+			builder.setFailureStore(store, keyPrefix);
+		}
+		final List<String> KOMessages = builder.evaluateAssertions();
+		if(builder.getKOCount() == 0){
+			if(verbose){
+				report.logOKMessage(String.format(MATCHED_MESSAGE, keyField, key));
+			}
+		}else if(store != null){
+			report.countStoredKOMessages(builder.getKOCount());
+		}
+		for (final String message : KOMessages) {
+			report.logKOMessage(keyPrefix + message);
+		}
+	}
+
+	/**
+	 * Reads the key of a record, with the Fields resolved for the class of the previous record when it is the same.
+	 */
+	private Object readKey(final Object record){
+		if(record == null){
+			throw new IllegalArgumentException(RECORD_IS_NULL);
+		}
+		if(keyFieldPath.length > 2){
+			throw new IllegalArgumentException(String.format(INCORRECT_FORMAT, keyField));
+		}
+		if(record.getClass() != recordClass){
+			final Field field = findField(keyFieldPath[0], MultiAssertBuilder.retrieveFieldList(record.getClass()));
+			if(field == null){
+				throw new IllegalArgumentException(String.format(THE_FIELD_DOES_NOT_EXIST_IN_THE_TYPE, keyField, record.getClass().getName()));
+			}
+			recordKeyField = field;
+			recordClass = record.getClass();
+		}
+		try{
+			final Object value = recordKeyField.get(record);
+			if(keyFieldPath.length == 1){
+				return value;
+			}
+			if(value == null){
+				throw new NullPointerException(String.format(FIELD_VALUE_CANNOT_BE_NULL_TO_FETCH_SUB_FIELD, keyFieldPath[0], keyFieldPath[1]));
+			}
+			if(value.getClass() != subObjectClass){
+				final Field subField = findField(keyFieldPath[1], MultiAssertBuilder.retrieveFieldList(value.getClass()));
+				if(subField == null){
+					throw new IllegalArgumentException(String.format(THE_SUB_FIELD_DOES_NOT_EXIST, keyFieldPath[1], keyFieldPath[0]));
+				}
+				subObjectKeyField = subField;
+				subObjectClass = value.getClass();
+			}
+			return subObjectKeyField.get(value);
+		}catch(final IllegalAccessException iae){
+			throw new RuntimeException(String.format(UNKNOWN_ERROR, keyField));
+		}
+	}
+
+	/**
+	 * Finds a Field in a List<Field> by its name, or returns null.
+	 */
+	private static Field findField(final String fieldName, final List<Field> fieldList){
+		for (final Field field : fieldList) {
+			if(field.getName().equals(fieldName)){
+				return field;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,267 @@
+package com.lma.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SamplingAssertRunner runs the same AssertionPlan on a sample of the pairs of objects it is offered, for example in a production
+ * canary comparing the live results with the results of a reference implementation, where checking every pair is too expensive.
+ * It checks one pair out of N, and can adapt N to keep the CPU time spent on the assertions within a budget.
+ * It never throws into the caller : the errors are published to an {@link AssertionSink}.
+ * Only the errors the JVM cannot recover from, like an OutOfMemoryError, are rethrown.<br /><br />
+ *
+ * How to use :<br /><br />
+ * <pre>
+ * {@code private final SamplingAssertRunner canary = new SamplingAssertRunner(plan, sink)
+ * 	.sampleEvery(100)
+ * 	.cpuBudget(10, TimeUnit.MILLISECONDS);
+ * ...
+ * final Order order = service.process(request);
+ * canary.offer(order, referenceService.process(request));
+ * }</pre>
+ * @author Louis Madeuf
+ * @version 2.1
+ */
+public class SamplingAssertRunner {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String PLAN_IS_NULL_PARAMETER = "'plan' parameter is null in constructor.";
+	private static final String SINK_IS_NULL_PARAMETER = "'sink' parameter is null in constructor.";
+	private static final String INTERVAL_NOT_POSITIVE = "Method sampleEvery() - the interval must be greater than 0.";
+	private static final String INVALID_BUDGET = "Method cpuBudget() - the budget must be greater than 0 and its unit cannot be null.";
+	private static final String STORED_KO_MESSAGES = "KO : %d error(s) were sent to the failure store '%s'.";
+
+	/**
+	 * The highest interval the adaptive sampling can reach.
+	 */
+	private static final long MAX_INTERVAL = 1 << 20;
+
+	/**
+	 * The duration of the windows on which the CPU time is compared to the budget.
+	 */
+	private static final long WINDOW_DURATION = TimeUnit.SECONDS.toNanos(1);
+
+	/**
+	 * The plan to apply on each checked pair of objects.
+	 */
+	private final AssertionPlan plan;
+
+	/**
+	 * The sink receiving the errors.
+	 */
+	private final AssertionSink sink;
+
+	/**
+	 * The bean measuring the CPU time of the threads. Null if the JVM cannot measure it, the elapsed time is then used.
+	 */
+	private final ThreadMXBean threadBean;
+
+	/**
+	 * The interval set by the user : the adaptive sampling never checks more often.
+	 */
+	private volatile long minInterval = 1;
+
+	/**
+	 * The current interval : one pair out of sampleInterval is checked.
+	 */
+	private volatile long sampleInterval = 1;
+
+	/**
+	 * The CPU time allowed for the assertions per second, in nanoseconds. 0 if the sampling is not adaptive.
+	 */
+	private volatile long budgetPerWindow;
+
+	/**
+	 * The start of the current window, in nanoseconds.
+	 */
+	private long windowStart = System.nanoTime();
+
+	/**
+	 * The CPU time spent on the assertions in the current window, in nanoseconds.
+	 */
+	private long windowCost;
+
+	private final AtomicLong offeredCount = new AtomicLong();
+	private final AtomicLong checkedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong KOCount = new AtomicLong();
+
+	/**
+	 * Constructor for a SamplingAssertRunner. All the pairs are checked until {@link #sampleEvery(int)} or {@link #cpuBudget(long, TimeUnit)} is called.
+	 *
+	 * @param plan (AssertionPlan) the assertions to run on each checked pair of objects
+	 * @param sink (AssertionSink) the sink receiving the errors
+	 */
+	public SamplingAssertRunner(final AssertionPlan plan, final AssertionSink sink){
+		if(plan == null){
+			throw new IllegalArgumentException(PLAN_IS_NULL_PARAMETER);
+		}
+		if(sink == null){
+			throw new IllegalArgumentException(SINK_IS_NULL_PARAMETER);
+		}
+		this.plan = plan;
+		this.sink = sink;
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		this.threadBean = (bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled()) ? bean : null;
+	}
+
+	/**
+	 * Sets one pair out of interval to be checked. With a CPU budget, it is the smallest interval the adaptive sampling can use.
+	 *
+	 * @param interval (int) the interval, 1 to check every pair
+	 * @return this instance of SamplingAssertRunner
+	 */
+	public SamplingAssertRunner sampleEvery(final int interval){
+		if(interval <= 0){
+			throw new IllegalArgumentException(INTERVAL_NOT_POSITIVE);
+		}
+		this.minInterval = interval;
+		this.sampleInterval = interval;
+		return this;
+	}
+
+	/**
+	 * Sets the CPU time the assertions can use per second, all threads included. Once per second, or as soon as the budget is exceeded,
+	 * the interval is doubled if the assertions used more than the budget, and halved if they used less than half of it.
+	 *
+	 * @param budget (long) the CPU time allowed per second
+	 * @param unit (TimeUnit) the unit of the budget
+	 * @return this instance of SamplingAssertRunner
+	 */
+	public SamplingAssertRunner cpuBudget(final long budget, final TimeUnit unit){
+		if((budget <= 0) || (unit == null)){
+			throw new IllegalArgumentException(INVALID_BUDGET);
+		}
+		this.budgetPerWindow = unit.toNanos(budget);
+		return this;
+	}
+
+	/**
+	 * Offers a pair of objects, which is checked if it is part of the sample. The checks run in the calling thread.
+	 * This method never throws : the errors and the exceptions are published to the sink,
+	 * including a StackOverflowError from a cyclic equals(). Only ThreadDeath and the other VirtualMachineErrors,
+	 * like an OutOfMemoryError, reach the caller.
+	 *
+	 * @param actual (Object) the Object to test
+	 * @param expected (Object) the Object containing the target values
+	 * @return (boolean) true if the pair was checked.
+	 */
+	public boolean offer(final Object actual, final Object expected){
+		if((offeredCount.getAndIncrement() % sampleInterval) != 0){
+			return false;
+		}
+		checkedCount.incrementAndGet();
+		final long start = currentCpuTime();
+		try{
+			final MultiAssertBuilder builder = plan.configure(new MultiAssertBuilder(actual, expected));
+			final List<String> KOMessages = new ArrayList<String>(builder.evaluateAssertions());
+			if(builder.getKOCount() > 0){
+				failedCount.incrementAndGet();
+				KOCount.addAndGet(builder.getKOCount());
+				if(KOMessages.isEmpty()){
+					KOMessages.add(String.format(STORED_KO_MESSAGES, builder.getKOCount(), builder.getFailureStore().getSpillFile().getPath()));
+				}
+				publishFailure(actual.getClass(), KOMessages);
+			}
+		}catch(final Throwable error){
+			AssertionExecutors.rethrowIfFatal(error);
+			failedCount.incrementAndGet();
+			publishError(actual, error);
+		}finally{
+			if(budgetPerWindow > 0){
+				adaptInterval(currentCpuTime() - start);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Retrieves the number of pairs offered.
+	 */
+	public long getOfferedCount(){
+		return offeredCount.get();
+	}
+
+	/**
+	 * Retrieves the number of pairs checked.
+	 */
+	public long getCheckedCount(){
+		return checkedCount.get();
+	}
+
+	/**
+	 * Retrieves the number of checked pairs with at least one error or an exception.
+	 */
+	public long getFailedCount(){
+		return failedCount.get();
+	}
+
+	/**
+	 * Retrieves the number of assertions that went wrong in all the checked pairs.
+	 */
+	public long getKOCount(){
+		return KOCount.get();
+	}
+
+	/**
+	 * Retrieves the current interval : one pair out of this number is checked.
+	 */
+	public long getSampleInterval(){
+		return sampleInterval;
+	}
+
+	/**
+	 * Adds the cost of a check to the current window, and adapts the interval at the end of the window or if the budget is exceeded.
+	 *
+	 * @param cost (long) the CPU time of the check, in nanoseconds.
+	 */
+	private synchronized void adaptInterval(final long cost){
+		windowCost += cost;
+		final long now = System.nanoTime();
+		final boolean windowEnded = (now - windowStart) >= WINDOW_DURATION;
+		if(windowCost > budgetPerWindow){
+			sampleInterval = Math.min(sampleInterval * 2, MAX_INTERVAL);
+		}else if(windowEnded && (windowCost < (budgetPerWindow / 2))){
+			sampleInterval = Math.max(sampleInterval / 2, minInterval);
+		}
+		if(windowEnded || (windowCost > budgetPerWindow)){
+			windowStart = now;
+			windowCost = 0;
+		}
+	}
+
+	/**
+	 * Retrieves the CPU time of the current thread, or the elapsed time if the JVM cannot measure it.
+	 */
+	private long currentCpuTime(){
+		return (threadBean != null) ? threadBean.getCurrentThreadCpuTime() : System.nanoTime();
+	}
+
+	/**
+	 * Publishes the errors of a pair to the sink. An exception of the sink must not reach the caller, so it is ignored.
+	 */
+	private void publishFailure(final Class<?> examinedClass, final List<String> KOMessages){
+		try{
+			sink.sampleFailed(examinedClass, KOMessages);
+		}catch(final Throwable sinkError){
+			AssertionExecutors.rethrowIfFatal(sinkError);
+		}
+	}
+
+	/**
+	 * Publishes the exception of a pair to the sink. An exception of the sink must not reach the caller, so it is ignored.
+	 */
+	private void publishError(final Object actual, final Throwable error){
+		try{
+			sink.sampleError(actual, error);
+		}catch(final Throwable sinkError){
+			AssertionExecutors.rethrowIfFatal(sinkError);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.lma.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * StripedCounter counts events of a fixed number of kinds from many threads without making them contend :
+ * each thread increments its own stripe, and the stripes are only summed when the counts are read.
+ * Each stripe is padded to a cache line, so the threads do not share the lines they write.
+ */
+final class StripedCounter {
+
+	/**
+	 * Number of longs in a cache line of 64 bytes.
+	 */
+	private static final int LINE_LENGTH = 8;
+
+	/**
+	 * Number of stripes : the power of two above the number of processors, 16 at most.
+	 */
+	private static final int STRIPE_COUNT = Math.min(16, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+
+	private final int kindCount;
+	private final int stripeLength;
+	private final AtomicLongArray counts;
+
+	/**
+	 * Constructor for a StripedCounter.
+	 * 
+	 * @param kindCount (int) the number of kinds of events counted.
+	 */
+	StripedCounter(final int kindCount){
+		this.kindCount = kindCount;
+		this.stripeLength = ((kindCount + LINE_LENGTH - 1) / LINE_LENGTH) * LINE_LENGTH;
+		this.counts = new AtomicLongArray(STRIPE_COUNT * stripeLength);
+	}
+
+	/**
+	 * Counts one event of a kind, in the stripe of the current thread.
+	 */
+	void increment(final int kind){
+		final int stripe = (int) (Thread.currentThread().getId() & (STRIPE_COUNT - 1));
+		counts.incrementAndGet((stripe * stripeLength) + kind);
+	}
+
+	/**
+	 * Retrieves the number of events of a kind, summed over all the stripes.
+	 */
+	long sum(final int kind){
+		long sum = 0;
+		for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+			sum += counts.get((stripe * stripeLength) + kind);
+		}
+		return sum;
+	}
+
+	/**
+	 * Retrieves the number of events of all kinds.
+	 */
+	long sum(){
+		long sum = 0;
+		for (int kind = 0; kind < kindCount; kind++) {
+			sum += sum(kind);
+		}
+		return sum;
+	}
+}
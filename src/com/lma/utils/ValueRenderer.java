@@ -0,0 +1,289 @@
+package com.lma.utils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * ValueRenderer renders the values of the fields in the logs, within limits, so that a large or cyclic value
+ * cannot produce a huge log nor a runaway recursion.
+ * The arrays, collections and maps are rendered element by element, up to a number of elements and a depth of nesting,
+ * and an object already being rendered is not rendered again. The rendering stops as soon as the maximum length is reached.
+ * The values of the JDK types, like numbers or dates, and the objects whose class overrides toString(), like identifiers or amounts,
+ * are rendered with their toString(), cut to the maximum length. The character sequences are only read up to the maximum length.
+ * The other objects are rendered field by field, like the builder reads them, and so are the objects whose toString() fails or recurses without end.
+ */
+final class ValueRenderer {
+
+	/**
+	 * Message constants.
+	 */
+	private static final String NULL = "null";
+	private static final String SEPARATOR = ", ";
+	private static final String MORE_ELEMENTS = "... (%d more)";
+	private static final String NESTED_ELEMENTS = "(%d element(s))";
+	private static final String NESTED_FIELDS = "(%d field(s))";
+	private static final String CYCLE = "(cycle)";
+	private static final String TRUNCATED = "... (truncated)";
+	private static final String TO_STRING_ERROR = "%s@%x (toString() threw %s)";
+	private static final String UNREADABLE = "%s@%x (fields not readable : %s)";
+	private static final String JAVA_PACKAGE = "java.";
+	private static final String JAVAX_PACKAGE = "javax.";
+	private static final String TO_STRING = "toString";
+
+	/**
+	 * The limits used by default : 1000 characters, 100 elements or fields per value and 3 levels of nested values.
+	 */
+	static final ValueRenderer DEFAULT = new ValueRenderer(1000, 100, 3);
+
+	private final int maxLength;
+	private final int maxElements;
+	private final int maxDepth;
+
+	/**
+	 * Constructor for a ValueRenderer.
+	 *
+	 * @param maxLength (int) the maximum number of characters of a rendered value, before the truncation mark.
+	 * @param maxElements (int) the maximum number of elements rendered per array, collection or map, and of fields per object.
+	 * @param maxDepth (int) the maximum number of nested arrays, collections, maps or objects rendered.
+	 */
+	ValueRenderer(final int maxLength, final int maxElements, final int maxDepth){
+		this.maxLength = maxLength;
+		this.maxElements = maxElements;
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Renders a value within the limits. Enumerations are rendered with their name.
+	 *
+	 * @param value (Object) the value to render, can be null.
+	 * @return (String) the rendered value.
+	 */
+	String render(final Object value){
+		final StringBuilder builder = new StringBuilder();
+		append(builder, value, 0, new IdentityHashMap<Object, Boolean>());
+		if(builder.length() > maxLength){
+			builder.setLength(maxLength);
+			builder.append(TRUNCATED);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Appends a value, unless the maximum length is already reached.
+	 */
+	private void append(final StringBuilder builder, final Object value, final int depth, final Map<Object, Boolean> inProgress){
+		if(builder.length() > maxLength){
+			return;
+		}
+		if(value == null){
+			builder.append(NULL);
+		}else if(value instanceof Enum<?>){
+			builder.append(((Enum<?>) value).name());
+		}else if(value.getClass().isArray()){
+			appendContainer(builder, value, depth, inProgress);
+		}else if((value instanceof Collection<?>) || (value instanceof Map<?, ?>)){
+			appendContainer(builder, value, depth, inProgress);
+		}else if(value instanceof CharSequence){
+			appendCharSequence(builder, (CharSequence) value);
+		}else if(isJdkType(value.getClass())){
+			appendString(builder, value);
+		}else if(inProgress.containsKey(value) || !overridesToString(value.getClass()) || !appendOwnString(builder, value)){
+			appendObject(builder, value, depth, inProgress);
+		}
+	}
+
+	/**
+	 * Appends an array, a collection or a map, element by element.
+	 */
+	private void appendContainer(final StringBuilder builder, final Object container, final int depth, final Map<Object, Boolean> inProgress){
+		final boolean isMap = container instanceof Map<?, ?>;
+		final int size = getSize(container);
+		builder.append(isMap ? '{' : '[');
+		if(inProgress.containsKey(container)){
+			builder.append(CYCLE);
+		}else if(depth >= maxDepth){
+			builder.append(String.format(NESTED_ELEMENTS, size));
+		}else{
+			inProgress.put(container, Boolean.TRUE);
+			final Iterator<?> elements = iterate(container);
+			int count = 0;
+			while(elements.hasNext() && (count < maxElements) && (builder.length() <= maxLength)){
+				if(count > 0){
+					builder.append(SEPARATOR);
+				}
+				final Object element = elements.next();
+				if(isMap){
+					final Entry<?, ?> entry = (Entry<?, ?>) element;
+					append(builder, entry.getKey(), depth + 1, inProgress);
+					builder.append('=');
+					append(builder, entry.getValue(), depth + 1, inProgress);
+				}else{
+					append(builder, element, depth + 1, inProgress);
+				}
+				count++;
+			}
+			if(count < size){
+				builder.append(SEPARATOR).append(String.format(MORE_ELEMENTS, size - count));
+			}
+			inProgress.remove(container);
+		}
+		builder.append(isMap ? '}' : ']');
+	}
+
+	/**
+	 * Appends an object field by field, with the fields the builder reads : the constants and the static fields are not rendered.
+	 */
+	private void appendObject(final StringBuilder builder, final Object value, final int depth, final Map<Object, Boolean> inProgress){
+		final Class<?> type = value.getClass();
+		final List<Field> fields;
+		try{
+			fields = MultiAssertBuilder.retrieveFieldList(type);
+		}catch(final RuntimeException re){
+			appendCharSequence(builder, String.format(UNREADABLE, type.getName(), System.identityHashCode(value), re.getClass().getSimpleName()));
+			return;
+		}
+		final String typeName = type.getSimpleName();
+		builder.append((typeName.length() > 0) ? typeName : type.getName()).append('{');
+		if(inProgress.containsKey(value)){
+			builder.append(CYCLE);
+		}else if(depth >= maxDepth){
+			builder.append(String.format(NESTED_FIELDS, countInstanceFields(fields)));
+		}else{
+			inProgress.put(value, Boolean.TRUE);
+			int count = 0;
+			for (final Field field : fields) {
+				if(Modifier.isStatic(field.getModifiers())){
+					continue;
+				}
+				if((count >= maxElements) || (builder.length() > maxLength)){
+					break;
+				}
+				if(count > 0){
+					builder.append(SEPARATOR);
+				}
+				builder.append(field.getName()).append('=');
+				try{
+					append(builder, field.get(value), depth + 1, inProgress);
+				}catch(final IllegalAccessException iae){
+					builder.append('?');
+				}
+				count++;
+			}
+			final int fieldCount = countInstanceFields(fields);
+			if(count < fieldCount){
+				builder.append(SEPARATOR).append(String.format(MORE_ELEMENTS, fieldCount - count));
+			}
+			inProgress.remove(value);
+		}
+		builder.append('}');
+	}
+
+	/**
+	 * Appends a character sequence, reading only the characters that fit in the room left.
+	 */
+	private void appendCharSequence(final StringBuilder builder, final CharSequence sequence){
+		final int room = (maxLength + 1) - builder.length();
+		builder.append(sequence, 0, Math.min(sequence.length(), Math.max(room, 0)));
+	}
+
+	/**
+	 * Appends the result of toString() of a JDK type, cut to the room left. A toString() that fails is replaced by the identity of the value.
+	 */
+	private void appendString(final StringBuilder builder, final Object value){
+		String string;
+		try{
+			string = value.toString();
+		}catch(final RuntimeException re){
+			string = String.format(TO_STRING_ERROR, value.getClass().getName(), System.identityHashCode(value), re.getClass().getSimpleName());
+		}
+		appendCharSequence(builder, (string != null) ? string : NULL);
+	}
+
+	/**
+	 * Appends the result of the toString() of a class which overrides it, cut to the room left.
+	 *
+	 * @return (boolean) false if toString() failed, nothing being appended : the object is to be rendered field by field.
+	 */
+	private boolean appendOwnString(final StringBuilder builder, final Object value){
+		final String string;
+		try{
+			string = value.toString();
+		}catch(final RuntimeException re){
+			return false;
+		}catch(final StackOverflowError soe){
+			return false;
+		}
+		if(string == null){
+			return false;
+		}
+		appendCharSequence(builder, string);
+		return true;
+	}
+
+	/**
+	 * Determines if a class, or one of its super-classes, overrides Object.toString().
+	 */
+	private static boolean overridesToString(final Class<?> type){
+		try{
+			return type.getMethod(TO_STRING).getDeclaringClass() != Object.class;
+		}catch(final NoSuchMethodException nsme){
+			return false;
+		}
+	}
+
+	private static int countInstanceFields(final List<Field> fields){
+		int count = 0;
+		for (final Field field : fields) {
+			if(!Modifier.isStatic(field.getModifiers())){
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static boolean isJdkType(final Class<?> type){
+		final String typeName = type.getName();
+		return typeName.startsWith(JAVA_PACKAGE) || typeName.startsWith(JAVAX_PACKAGE);
+	}
+
+	private static int getSize(final Object container){
+		if(container instanceof Collection<?>){
+			return ((Collection<?>) container).size();
+		}
+		if(container instanceof Map<?, ?>){
+			return ((Map<?, ?>) container).size();
+		}
+		return Array.getLength(container);
+	}
+
+	/**
+	 * Iterates over the elements of an array, a collection, or the entries of a map.
+	 */
+	private static Iterator<?> iterate(final Object container){
+		if(container instanceof Collection<?>){
+			return ((Collection<?>) container).iterator();
+		}
+		if(container instanceof Map<?, ?>){
+			return ((Map<?, ?>) container).entrySet().iterator();
+		}
+		return new Iterator<Object>(){
+			private int index;
+			public boolean hasNext(){
+				return index < Array.getLength(container);
+			}
+			public Object next(){
+				return Array.get(container, index++);
+			}
+			public void remove(){
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}